@@ -0,0 +1,59 @@
+package com.catalog_service.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bounded Caffeine caches for the product read paths. Every cache is registered up front so that
+ * actuator binds its hit/miss, eviction and size metrics at startup ({@code cache.gets},
+ * {@code cache.evictions}, {@code cache.size} tagged with {@code cache=<name>}).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS_BY_SLUG = "productsBySlug";
+    public static final String PRODUCTS_BY_ID = "productsById";
+    public static final String HOME = "home";
+
+    @Value("${catalog.cache.products.max-entries:10000}")
+    private long productMaxEntries;
+
+    @Value("${catalog.cache.products.ttl:30m}")
+    private Duration productTtl;
+
+    @Value("${catalog.cache.home.max-entries:32}")
+    private long homeMaxEntries;
+
+    @Value("${catalog.cache.home.ttl:60s}")
+    private Duration homeTtl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Only the caches registered here exist; a typo in a cache name fails fast instead of creating an unbounded cache
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(PRODUCTS_BY_SLUG, bounded(productMaxEntries, productTtl));
+        cacheManager.registerCustomCache(PRODUCTS_BY_ID, bounded(productMaxEntries, productTtl));
+        // The home list is a handful of keys (one per limit) but goes stale on every new product, so it expires quickly
+        cacheManager.registerCustomCache(HOME, bounded(homeMaxEntries, homeTtl));
+        return cacheManager;
+    }
+
+    private static Cache<Object, Object> bounded(long maxEntries, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
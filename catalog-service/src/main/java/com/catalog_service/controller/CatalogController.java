@@ -1,13 +1,24 @@
 package com.catalog_service.controller;
 
 import com.catalog_service.service.ProductService;
+import com.catalog_service.service.StoreSummaryService;
 import com.catalog_service.service.model.Product;
+import com.catalog_service.service.model.ProductSummary;
+import com.catalog_service.service.model.StoreProductCounts;
+import com.catalog_service.service.model.StoreSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -15,35 +26,65 @@ import java.util.stream.Collectors;
 @RequestMapping("")
 public class CatalogController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_ATTR_FILTERS = 10;
+
     private final ProductService productService;
+    private final StoreSummaryService storeSummaryService;
+
+    // Listings tolerate a minute of staleness; product pages show stock and revalidate sooner
+    @Value("${catalog.http.listing-max-age:60s}")
+    private Duration listingMaxAge;
 
-    public CatalogController(ProductService productService) {
+    @Value("${catalog.http.detail-max-age:10s}")
+    private Duration detailMaxAge;
+
+    public CatalogController(ProductService productService, StoreSummaryService storeSummaryService) {
         this.productService = productService;
+        this.storeSummaryService = storeSummaryService;
     }
 
     @GetMapping("/home")
-    public ResponseEntity<List<Product>> home(@RequestParam(defaultValue = "24") int limit) {
-        return ResponseEntity.ok(productService.home(limit));
+    public ResponseEntity<List<ProductSummary>> home(@RequestParam(defaultValue = "24") int limit) {
+        List<ProductSummary> products = productService.home(limit);
+        return ResponseEntity.ok()
+                .eTag(ETags.ofSummaries(products, products.size()))
+                .cacheControl(listingCacheControl())
+                .body(products);
     }
 
     @GetMapping("/products")
-    public ResponseEntity<List<Product>> products(@RequestParam(required = false) String category,
+    public ResponseEntity<List<ProductSummary>> products(@RequestParam(required = false) String category,
                                                   @RequestParam(required = false) String q,
                                                   @RequestParam(required = false) String min,
                                                   @RequestParam(required = false) String max,
                                                   @RequestParam(required = false) String attrs,
                                                   @RequestParam(required = false) String sort,
-                                                  @RequestParam(defaultValue = "1") int page) {
-        // min/max/attrs ignored in in-memory impl
+                                                  @RequestParam(defaultValue = "1") int page,
+                                                  @RequestParam(defaultValue = "24") int size) {
         // q parametresini güvenli hale getir
         String safeQuery = (q != null && !q.isBlank()) ? q.trim() : null;
-        return ResponseEntity.ok(productService.list(category, safeQuery, sort, page));
+        int safeSize = Math.min(Math.max(1, size), MAX_PAGE_SIZE);
+
+        Page<ProductSummary> result = productService.list(category, safeQuery, parsePrice(min), parsePrice(max),
+                parseAttrs(attrs), sort, Math.max(1, page) - 1, safeSize);
+
+        // Body stays a plain array for existing clients; paging metadata travels in headers
+        return ResponseEntity.ok()
+                .eTag(ETags.ofSummaries(result.getContent(), result.getTotalElements()))
+                .cacheControl(listingCacheControl())
+                .header("X-Total-Count", String.valueOf(result.getTotalElements()))
+                .header("X-Total-Pages", String.valueOf(result.getTotalPages()))
+                .body(result.getContent());
     }
 
     @GetMapping("/products/{slug}")
     public ResponseEntity<Product> productDetail(@PathVariable String slug) {
         return productService.findBySlug(slug)
-                .map(ResponseEntity::ok)
+                .map(product -> ResponseEntity.ok()
+                        .eTag(ETags.ofProduct(product))
+                        .cacheControl(CacheControl.maxAge(detailMaxAge).cachePublic())
+                        .body(product))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -100,59 +141,124 @@ public class CatalogController {
 
     // Store endpoints for inter-service communication
     @GetMapping("/stores/active")
-    public ResponseEntity<List<Map<String, Object>>> getActiveStores() {
-        List<Product> activeProducts = productService.getAllActive();
-
-        // Group products by storeId and create store summaries
-        Map<UUID, List<Product>> productsByStore = activeProducts.stream()
-                .collect(Collectors.groupingBy(Product::getStoreId));
-
-        List<Map<String, Object>> activeStores = productsByStore.entrySet().stream()
-                .map(entry -> {
-                    UUID storeId = entry.getKey();
-                    List<Product> products = entry.getValue();
-                    long totalProducts = products.size();
-
-                    // Get first product to extract store info (this is a simplified approach)
-                    // In a real scenario, you'd have a Store entity with proper store info
-                    Product firstProduct = products.get(0);
+    public ResponseEntity<List<Map<String, Object>>> getActiveStores(@RequestParam(required = false) Integer page,
+                                                                     @RequestParam(required = false) Integer size) {
+        // Without paging parameters the whole list is returned, as seller-service expects
+        if (page == null && size == null) {
+            return ResponseEntity.ok(storeSummaryService.getActiveStores().stream()
+                    .map(this::toStoreMap)
+                    .collect(Collectors.toList()));
+        }
 
-                    return Map.<String, Object>of(
-                        "id", storeId.toString(),
-                        "name", "Store " + storeId.toString().substring(0, 8), // Placeholder name
-                        "email", "store-" + storeId.toString().substring(0, 8) + "@example.com", // Placeholder email
-                        "activeSince", "2024-01-01", // Placeholder date
-                        "totalProducts", totalProducts,
-                        "isActive", true
-                    );
-                })
-                .collect(Collectors.toList());
+        int safeSize = Math.min(Math.max(1, size == null ? 24 : size), MAX_PAGE_SIZE);
+        Page<StoreSummary> result = storeSummaryService.getActiveStores(Math.max(1, page == null ? 1 : page) - 1, safeSize);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(result.getTotalElements()))
+                .header("X-Total-Pages", String.valueOf(result.getTotalPages()))
+                .body(result.getContent().stream().map(this::toStoreMap).collect(Collectors.toList()));
+    }
 
-        return ResponseEntity.ok(activeStores);
+    private Map<String, Object> toStoreMap(StoreSummary store) {
+        String storeId = store.getId().toString();
+        String shortId = storeId.substring(0, 8);
+        // Stores without a catalog.stores row keep the placeholder values clients already handle
+        return Map.of(
+            "id", storeId,
+            "name", store.getName() != null ? store.getName() : "Store " + shortId,
+            "slug", store.getSlug() != null ? store.getSlug() : storeId,
+            "email", "store-" + shortId + "@example.com", // Placeholder email
+            "activeSince", store.getCreatedAt() != null ? store.getCreatedAt().toString() : "2024-01-01",
+            "totalProducts", store.getTotalProducts(),
+            "isActive", true
+        );
     }
 
     @GetMapping("/stores/{storeId}")
     public ResponseEntity<Map<String, Object>> getStoreById(@PathVariable String storeId) {
-        UUID storeUUID = UUID.fromString(storeId);
-        List<Product> storeProducts = productService.getByStoreId(storeUUID);
+        UUID storeUUID;
+        try {
+            storeUUID = UUID.fromString(storeId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StoreProductCounts counts = productService.countByStore(storeUUID);
 
-        if (storeProducts.isEmpty()) {
+        if (counts.getTotalProducts() == 0) {
             return ResponseEntity.notFound().build();
         }
 
-        long activeProducts = storeProducts.stream()
-                .filter(Product::isActive)
-                .count();
-
-        return ResponseEntity.ok(Map.of(
+        return ResponseEntity.ok()
+                .eTag(ETags.of(storeId, counts.getTotalProducts(), counts.getActiveProducts()))
+                .cacheControl(listingCacheControl())
+                .body(Map.<String, Object>of(
             "id", storeId,
             "name", "Store " + storeId.substring(0, 8),
             "email", "store-" + storeId.substring(0, 8) + "@example.com",
-            "totalProducts", storeProducts.size(),
-            "activeProducts", activeProducts,
-            "isActive", activeProducts > 0
+            "totalProducts", counts.getTotalProducts(),
+            "activeProducts", counts.getActiveProducts(),
+            "isActive", counts.getActiveProducts() > 0
         ));
     }
-}
 
+    @GetMapping("/stores/{storeId}/products")
+    public ResponseEntity<List<ProductSummary>> getStoreProducts(@PathVariable String storeId,
+                                                          @RequestParam(required = false) String sort,
+                                                          @RequestParam(defaultValue = "1") int page,
+                                                          @RequestParam(defaultValue = "24") int size) {
+        UUID storeUUID;
+        try {
+            storeUUID = UUID.fromString(storeId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int safeSize = Math.min(Math.max(1, size), MAX_PAGE_SIZE);
+        Page<ProductSummary> result = productService.listByStore(storeUUID, sort, Math.max(1, page) - 1, safeSize);
+
+        return ResponseEntity.ok()
+                .eTag(ETags.ofSummaries(result.getContent(), result.getTotalElements()))
+                .cacheControl(listingCacheControl())
+                .header("X-Total-Count", String.valueOf(result.getTotalElements()))
+                .header("X-Total-Pages", String.valueOf(result.getTotalPages()))
+                .body(result.getContent());
+    }
 
+    private CacheControl listingCacheControl() {
+        return CacheControl.maxAge(listingMaxAge).cachePublic();
+    }
+
+    /**
+     * Parses {@code color:red,size:42}; repeating a key ({@code color:red,color:blue}) accepts either value.
+     * Malformed pairs are skipped.
+     */
+    private Map<String, Set<String>> parseAttrs(String value) {
+        if (value == null || value.isBlank()) {
+            return Map.of();
+        }
+        Map<String, Set<String>> attrs = new LinkedHashMap<>();
+        for (String pair : value.split(",")) {
+            int colon = pair.indexOf(':');
+            if (colon <= 0 || colon == pair.length() - 1) {
+                continue;
+            }
+            String key = pair.substring(0, colon).trim();
+            String attrValue = pair.substring(colon + 1).trim();
+            if (key.isEmpty() || attrValue.isEmpty() || (!attrs.containsKey(key) && attrs.size() >= MAX_ATTR_FILTERS)) {
+                continue;
+            }
+            attrs.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(attrValue);
+        }
+        return attrs;
+    }
+
+    private Double parsePrice(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.catalog_service.controller;
+
+import com.catalog_service.service.model.Product;
+import com.catalog_service.service.model.ProductSummary;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Strong entity tags for catalog responses, derived from product ids and row versions rather than
+ * from the serialized body, so they are known before anything is written. Spring answers a matching
+ * {@code If-None-Match} with 304 and skips serialization.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String ofProduct(Product product) {
+        return quote(product.getId() + "-" + product.getVersion());
+    }
+
+    /**
+     * Changes whenever an item is added, removed, reordered or modified, or the total changes.
+     */
+    static String ofSummaries(Collection<ProductSummary> items, long total) {
+        StringBuilder sb = new StringBuilder(items.size() * 40 + 20).append(total);
+        for (ProductSummary item : items) {
+            sb.append('|').append(item.getId()).append(':').append(item.getVersion());
+        }
+        return hash(sb.toString());
+    }
+
+    static String of(Object... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (Object part : parts) {
+            sb.append(part).append('|');
+        }
+        return hash(sb.toString());
+    }
+
+    private static String hash(String value) {
+        return quote(DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
@@ -70,6 +70,10 @@ public class Product {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private Instant updatedAt;
+
+    // Maintained by the trg_products_version trigger, never written by the application
+    @Column(name = "version", insertable = false, updatable = false)
+    private Long version;
     
     // Helper methods for backward compatibility
     public double getPriceAsDouble() {
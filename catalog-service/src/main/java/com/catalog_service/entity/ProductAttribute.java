@@ -0,0 +1,39 @@
+package com.catalog_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Entity
+@Table(name = "product_attrs")
+@IdClass(ProductAttribute.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductAttribute {
+
+    @Id
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Id
+    @Column(name = "key", nullable = false, length = 64)
+    private String key;
+
+    @Column(name = "value", nullable = false, length = 128)
+    private String value;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID productId;
+        private String key;
+    }
+}
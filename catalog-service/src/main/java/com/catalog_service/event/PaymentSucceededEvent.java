@@ -0,0 +1,21 @@
+package com.catalog_service.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Subset of the order-payment-service payment succeeded payload.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PaymentSucceededEvent {
+
+    private UUID orderId;
+    private String status;
+}
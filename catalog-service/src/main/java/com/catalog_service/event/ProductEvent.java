@@ -0,0 +1,38 @@
+package com.catalog_service.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Subset of the seller-service {@code product.events} payload that the catalog stores.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductEvent {
+
+    public enum EventType {
+        PRODUCT_CREATED,
+        PRODUCT_UPDATED,
+        PRODUCT_DELETED
+    }
+
+    private EventType eventType;
+    private UUID productId;
+    private String name;
+    private String category;
+    private BigDecimal price;
+    private Integer quantity;
+    private String imageUrl;
+    private String description;
+    private UUID sellerId;
+    private Boolean isActive;
+}
@@ -1,67 +1,63 @@
 package com.catalog_service.kafka;
 
-import com.catalog_service.service.ProductService;
+import com.catalog_service.event.OrderCreatedEvent;
+import com.catalog_service.event.PaymentSucceededEvent;
+import com.catalog_service.service.StockReservationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.UUID;
-
-@Slf4j
-//@Component
+import java.util.function.Consumer;
+
+/**
+ * Order and payment listeners driving stock reservations. Each poll is handled as one batch and one
+ * transaction; offsets are committed only after the batch has been applied. An unparseable record is
+ * handed to the error handler, which publishes it to {@code <topic>.DLT}.
+ */
+@Component
 @RequiredArgsConstructor
 public class CatalogKafkaConsumer {
 
-    private final ProductService productService;
+    private final StockReservationService stockReservationService;
+    private final ObjectMapper objectMapper;
 
-    @KafkaListener(topics = "payment.succeeded", groupId = "catalog")
-    @Transactional
-    public void onPaymentSucceeded(Map<String, Object> e) {
-        log.info("[catalog] payment.succeeded received: {}", e);
+    @KafkaListener(topics = "${catalog.stock.order-created-topic:order_created}",
+            containerFactory = "batchListenerContainerFactory")
+    public void onOrderCreated(List<ConsumerRecord<String, String>> records) {
+        consume(records, OrderCreatedEvent.class, stockReservationService::recordOrders);
+    }
 
-        try {
-            // Extract order items from the event
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> orderItems = (List<Map<String, Object>>) e.get("orderItems");
+    @KafkaListener(topics = "${catalog.stock.payment-succeeded-topic:payment_succeeded}",
+            containerFactory = "batchListenerContainerFactory")
+    public void onPaymentSucceeded(List<ConsumerRecord<String, String>> records) {
+        consume(records, PaymentSucceededEvent.class, stockReservationService::recordPayments);
+    }
 
-            if (orderItems == null || orderItems.isEmpty()) {
-                log.warn("[catalog] No order items found in payment.succeeded event");
-                return;
+    private <T> void consume(List<ConsumerRecord<String, String>> records, Class<T> type, Consumer<List<T>> apply) {
+        List<T> events = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, String> record = records.get(i);
+            if (record.value() == null) {
+                continue;
             }
-
-            // Process each order item
-            for (Map<String, Object> item : orderItems) {
-                String productIdStr = (String) item.get("productId");
-                Integer quantity = (Integer) item.get("quantity");
-
-                if (productIdStr == null || quantity == null) {
-                    log.warn("[catalog] Invalid order item data: productId={}, quantity={}", productIdStr, quantity);
-                    continue;
-                }
-
-                try {
-                    UUID productId = UUID.fromString(productIdStr);
-                    boolean success = productService.decrementStock(productId, quantity);
-
-                    if (success) {
-                        log.info("[catalog] Successfully decremented stock for product {} by {} units",
-                                productId, quantity);
-                    } else {
-                        log.error("[catalog] Failed to decrement stock for product {} by {} units - insufficient stock",
-                                productId, quantity);
-                    }
-                } catch (IllegalArgumentException ex) {
-                    log.error("[catalog] Invalid product ID format: {}", productIdStr, ex);
+            try {
+                events.add(objectMapper.readValue(record.value(), type));
+            } catch (JsonProcessingException e) {
+                // Keep the records before it, then let the error handler dead-letter this one
+                if (!events.isEmpty()) {
+                    apply.accept(events);
                 }
+                throw new BatchListenerFailedException("Unparseable " + type.getSimpleName(), e, i);
             }
-        } catch (Exception ex) {
-            log.error("[catalog] Error processing payment.succeeded event", ex);
+        }
+        if (!events.isEmpty()) {
+            apply.accept(events);
         }
     }
 }
-
-
@@ -4,9 +4,12 @@ import com.catalog_service.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
     Category findByName(String name);
+
+    Optional<Category> findFirstByNameOrderById(String name);
 }
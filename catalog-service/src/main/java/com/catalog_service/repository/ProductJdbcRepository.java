@@ -0,0 +1,122 @@
+package com.catalog_service.repository;
+
+import com.catalog_service.event.ProductEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bulk product writes for the event consumer. Each method sends one JDBC batch (or one statement),
+ * bypassing the persistence context: callers must not hold managed {@code Product} instances they
+ * expect to see these changes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductJdbcRepository {
+
+    /**
+     * A product event row; {@code categoryId} and {@code slug} are resolved by the caller.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Row {
+        private final ProductEvent event;
+        private final UUID categoryId;
+        private final String slug;
+    }
+
+    // Slug, store and creation time are set once; a replayed create only refreshes the mutable fields
+    private static final String UPSERT = """
+            INSERT INTO catalog.products (id, store_id, name, slug, price, currency, stock, category_id,
+                                          description, image_url, is_active, created_at)
+            VALUES (:id, :storeId, :name, :slug, :price, 'TRY', :stock, :categoryId,
+                    :description, :imageUrl, COALESCE(:active, TRUE), NOW())
+            ON CONFLICT (id) DO UPDATE SET
+                name = EXCLUDED.name,
+                price = EXCLUDED.price,
+                stock = EXCLUDED.stock,
+                category_id = EXCLUDED.category_id,
+                description = EXCLUDED.description,
+                image_url = EXCLUDED.image_url,
+                is_active = EXCLUDED.is_active,
+                updated_at = NOW()
+            """;
+
+    // Required columns keep their value when the event leaves them out
+    private static final String UPDATE = """
+            UPDATE catalog.products SET
+                name = COALESCE(:name, name),
+                price = COALESCE(:price, price),
+                stock = COALESCE(:stock, stock),
+                category_id = COALESCE(:categoryId, category_id),
+                description = :description,
+                image_url = :imageUrl,
+                is_active = COALESCE(:active, is_active),
+                updated_at = NOW()
+            WHERE id = :id
+            """;
+
+    private static final String FIND_SLUGS = "SELECT id, slug FROM catalog.products WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void upsert(List<Row> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, rows.stream().map(ProductJdbcRepository::params).toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    /**
+     * Updates existing products and returns the update count per row (0 when the product does not exist).
+     */
+    public int[] update(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(UPDATE, rows.stream().map(ProductJdbcRepository::params).toArray(SqlParameterSource[]::new));
+    }
+
+    public int delete(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("DELETE FROM catalog.products WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids));
+    }
+
+    public Map<UUID, String> findSlugs(Collection<UUID> ids) {
+        Map<UUID, String> slugs = new HashMap<>();
+        if (ids.isEmpty()) {
+            return slugs;
+        }
+        jdbcTemplate.query(FIND_SLUGS, new MapSqlParameterSource("ids", ids),
+                rs -> { slugs.put(rs.getObject("id", UUID.class), rs.getString("slug")); });
+        return slugs;
+    }
+
+    private static SqlParameterSource params(Row row) {
+        ProductEvent event = row.getEvent();
+        // Explicit SQL types so that null values still resolve inside COALESCE
+        return new MapSqlParameterSource()
+                .addValue("id", event.getProductId())
+                .addValue("storeId", event.getSellerId(), Types.OTHER)
+                .addValue("name", event.getName(), Types.VARCHAR)
+                .addValue("slug", row.getSlug(), Types.VARCHAR)
+                .addValue("price", event.getPrice(), Types.NUMERIC)
+                .addValue("stock", event.getQuantity(), Types.INTEGER)
+                .addValue("categoryId", row.getCategoryId(), Types.OTHER)
+                .addValue("description", event.getDescription(), Types.VARCHAR)
+                .addValue("imageUrl", event.getImageUrl(), Types.VARCHAR)
+                .addValue("active", event.getIsActive(), Types.BOOLEAN);
+    }
+}
@@ -0,0 +1,89 @@
+package com.catalog_service.repository;
+
+import com.catalog_service.entity.Product;
+import com.catalog_service.service.model.ProductSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Listing queries that select {@link ProductSummary} rows directly. No entity is instantiated, so
+ * there is nothing for the persistence context to manage or snapshot for dirty checking.
+ */
+@Repository
+public class ProductListingRepository {
+
+    private static final String HOME = """
+            SELECT new com.catalog_service.service.model.ProductSummary(
+                p.id, p.storeId, p.name, p.slug, p.price, p.currency, p.stock,
+                p.categoryId, p.ratingAvg, p.ratingCount, p.imageUrl, p.description, p.isActive,
+                p.createdAt, p.version)
+            FROM Product p
+            WHERE p.isActive = true
+            ORDER BY p.createdAt DESC
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public List<ProductSummary> findHome(int limit) {
+        return entityManager.createQuery(HOME, ProductSummary.class)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Returns one page of summaries matching {@code spec}, ordered by the pageable's sort.
+     */
+    public Page<ProductSummary> findSummaries(Specification<Product> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<ProductSummary> query = cb.createQuery(ProductSummary.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.construct(ProductSummary.class,
+                root.get("id"), root.get("storeId"), root.get("name"), root.get("slug"),
+                root.get("price"), root.get("currency"), root.get("stock"), root.get("categoryId"),
+                root.get("ratingAvg"), root.get("ratingCount"), root.get("imageUrl"), root.get("description"),
+                root.get("isActive"), root.get("createdAt"), root.get("version")));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<ProductSummary> pageQuery = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize());
+        List<ProductSummary> content = pageQuery.getResultList();
+
+        // Skip the count when this page already shows where the results end
+        if (pageable.getOffset() == 0 && content.size() < pageable.getPageSize()) {
+            return new PageImpl<>(content, pageable, content.size());
+        }
+        return new PageImpl<>(content, pageable, count(spec));
+    }
+
+    private long count(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.count(root));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
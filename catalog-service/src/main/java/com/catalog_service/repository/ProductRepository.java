@@ -1,9 +1,12 @@
 package com.catalog_service.repository;
 
 import com.catalog_service.entity.Product;
+import com.catalog_service.service.model.StoreProductCounts;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,7 +16,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product> {
     
     List<Product> findByIsActiveTrueOrderByCreatedAtDesc();
     
@@ -22,11 +25,22 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     Optional<Product> findBySlug(String slug);
     
     List<Product> findByStoreIdOrderByCreatedAtDesc(UUID storeId);
+
+    @Query("SELECT new com.catalog_service.service.model.StoreProductCounts(COUNT(p), " +
+           "COALESCE(SUM(CASE WHEN p.isActive = true THEN 1L ELSE 0L END), 0L)) " +
+           "FROM Product p WHERE p.storeId = :storeId")
+    StoreProductCounts countByStore(@Param("storeId") UUID storeId);
     
-    @Query("SELECT p FROM Product p WHERE p.isActive = true " +
-           "AND (:category IS NULL OR p.categoryId = :category)")
-    List<Product> findProductsWithFilters(@Param("category") UUID category);
-    
+    /**
+     * Takes {@code quantity} units only if that many are in stock; returns 0 when the product is missing or short.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity WHERE p.id = :id AND p.stock >= :quantity")
+    int decrementStockIfAvailable(@Param("id") UUID id, @Param("quantity") int quantity);
+
+    @Query("SELECT p.slug FROM Product p WHERE p.id = :id")
+    Optional<String> findSlugById(@Param("id") UUID id);
+
     @Query("SELECT p FROM Product p WHERE p.isActive = true ORDER BY p.createdAt DESC")
     List<Product> findHomeProducts(Pageable pageable);
 }
@@ -0,0 +1,108 @@
+package com.catalog_service.repository;
+
+import com.catalog_service.entity.Product;
+import com.catalog_service.entity.ProductAttribute;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Composable predicates for the product listing query. Each factory returns
+ * {@code null} when its filter is absent so that {@link Specification#where}
+ * simply skips it and the generated SQL only carries the active conditions.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> isActive() {
+        return (root, query, cb) -> cb.isTrue(root.get("isActive"));
+    }
+
+    public static Specification<Product> inStore(UUID storeId) {
+        if (storeId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("storeId"), storeId);
+    }
+
+    public static Specification<Product> inCategory(UUID categoryId) {
+        if (categoryId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("categoryId"), categoryId);
+    }
+
+    public static Specification<Product> inCategories(Collection<UUID> categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return null;
+        }
+        if (categoryIds.size() == 1) {
+            return inCategory(categoryIds.iterator().next());
+        }
+        return (root, query, cb) -> root.get("categoryId").in(categoryIds);
+    }
+
+    public static Specification<Product> nameContains(String q) {
+        if (q == null || q.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + escapeLike(q.trim().toLowerCase()) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, '\\');
+    }
+
+    public static Specification<Product> priceAtLeast(BigDecimal min) {
+        if (min == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), min);
+    }
+
+    public static Specification<Product> priceAtMost(BigDecimal max) {
+        if (max == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), max);
+    }
+
+    /**
+     * Requires, for every key, an attribute row whose value is one of the given values (case-insensitive).
+     * Keys are ANDed, values of one key are ORed.
+     */
+    public static Specification<Product> hasAttributes(Map<String, Set<String>> attrs) {
+        if (attrs == null || attrs.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            attrs.forEach((key, values) -> {
+                Subquery<Integer> match = query.subquery(Integer.class);
+                Root<ProductAttribute> attr = match.from(ProductAttribute.class);
+                // lower(value) matches the expression in idx_product_attrs_key_value
+                match.select(cb.literal(1)).where(
+                        cb.equal(attr.get("productId"), root.get("id")),
+                        cb.equal(attr.get("key"), key),
+                        cb.lower(attr.get("value")).in(values.stream().map(v -> v.toLowerCase(Locale.ROOT)).toList()));
+                predicates.add(cb.exists(match));
+            });
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
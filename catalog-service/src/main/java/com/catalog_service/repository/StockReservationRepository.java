@@ -0,0 +1,114 @@
+package com.catalog_service.repository;
+
+import com.catalog_service.service.model.StockLine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Repository
+@RequiredArgsConstructor
+public class StockReservationRepository {
+
+    private static final String SAVE_PENDING = """
+            INSERT INTO catalog.stock_reservations (order_id, product_id, quantity)
+            VALUES (:orderId, :productId, :quantity)
+            ON CONFLICT (order_id, product_id) DO NOTHING
+            """;
+
+    // Flipping the status is the claim: a redelivered payment finds nothing left in PENDING
+    private static final String CLAIM_PENDING = """
+            UPDATE catalog.stock_reservations
+            SET status = 'RESERVED', processed_at = NOW()
+            WHERE order_id IN (:orderIds) AND status = 'PENDING'
+            RETURNING order_id, product_id, quantity
+            """;
+
+    // Ids are upserted in sorted order so that overlapping batches lock the rows in the same order.
+    // A concurrent upsert of the same order waits for this one to commit and then sees its flag.
+    private static final String MARK_ORDERED = """
+            INSERT INTO catalog.stock_orders (order_id, ordered_at)
+            SELECT id, NOW() FROM unnest(CAST(:orderIds AS uuid[])) AS id ORDER BY id
+            ON CONFLICT (order_id) DO UPDATE SET ordered_at = COALESCE(stock_orders.ordered_at, EXCLUDED.ordered_at)
+            RETURNING order_id, paid_at IS NOT NULL AS paid
+            """;
+
+    private static final String MARK_PAID = """
+            INSERT INTO catalog.stock_orders (order_id, paid_at)
+            SELECT id, NOW() FROM unnest(CAST(:orderIds AS uuid[])) AS id ORDER BY id
+            ON CONFLICT (order_id) DO UPDATE SET paid_at = COALESCE(stock_orders.paid_at, EXCLUDED.paid_at)
+            """;
+
+    private static final String MARK_REJECTED = """
+            UPDATE catalog.stock_reservations
+            SET status = 'REJECTED'
+            WHERE order_id = :orderId AND product_id = :productId
+            """;
+
+    // The stock check and the write are one statement, so concurrent buyers cannot both pass the check
+    private static final String DECREMENT_STOCK = """
+            UPDATE catalog.products
+            SET stock = stock - :quantity, updated_at = NOW()
+            WHERE id = :productId AND stock >= :quantity
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void savePending(List<StockLine> lines) {
+        jdbcTemplate.batchUpdate(SAVE_PENDING, lines.stream().map(StockReservationRepository::params)
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * Records that the orders were created and returns those whose payment has already been seen.
+     */
+    public List<UUID> markOrdered(Collection<UUID> orderIds) {
+        return jdbcTemplate.query(MARK_ORDERED, new MapSqlParameterSource("orderIds", uuidArray(orderIds)),
+                (rs, rowNum) -> rs.getBoolean("paid") ? rs.getObject("order_id", UUID.class) : null)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public void markPaid(Collection<UUID> orderIds) {
+        jdbcTemplate.update(MARK_PAID, new MapSqlParameterSource("orderIds", uuidArray(orderIds)));
+    }
+
+    public List<StockLine> claimPending(Collection<UUID> orderIds) {
+        return jdbcTemplate.query(CLAIM_PENDING, new MapSqlParameterSource("orderIds", orderIds),
+                (rs, rowNum) -> new StockLine(rs.getObject("order_id", UUID.class),
+                        rs.getObject("product_id", UUID.class), rs.getInt("quantity")));
+    }
+
+    public void markRejected(List<StockLine> lines) {
+        jdbcTemplate.batchUpdate(MARK_REJECTED, lines.stream().map(StockReservationRepository::params)
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * Applies all conditional decrements in one JDBC batch and returns the update count of each line
+     * (1 when the stock was taken, 0 when the product is missing or short).
+     */
+    public int[] decrementStock(List<StockLine> lines) {
+        return jdbcTemplate.batchUpdate(DECREMENT_STOCK, lines.stream().map(StockReservationRepository::params)
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    private static String uuidArray(Collection<UUID> ids) {
+        return ids.stream().sorted().map(UUID::toString).collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private static SqlParameterSource params(StockLine line) {
+        return new MapSqlParameterSource()
+                .addValue("orderId", line.getOrderId())
+                .addValue("productId", line.getProductId())
+                .addValue("quantity", line.getQuantity());
+    }
+}
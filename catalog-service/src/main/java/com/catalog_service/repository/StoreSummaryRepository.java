@@ -0,0 +1,44 @@
+package com.catalog_service.repository;
+
+import com.catalog_service.service.model.StoreSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class StoreSummaryRepository {
+
+    // Counts come from the (store_id, is_active, created_at) index; the store row is joined once per group
+    private static final String ACTIVE_STORES = """
+            SELECT c.store_id, s.name, s.slug, s.created_at, c.total_products
+            FROM (
+                SELECT store_id, COUNT(*) AS total_products
+                FROM catalog.products
+                WHERE is_active = TRUE
+                GROUP BY store_id
+            ) c
+            LEFT JOIN catalog.stores s ON s.id = c.store_id
+            WHERE s.id IS NULL OR s.is_deleted = FALSE
+            ORDER BY c.total_products DESC, c.store_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<StoreSummary> findActiveStores() {
+        return jdbcTemplate.query(ACTIVE_STORES, (rs, rowNum) -> {
+            StoreSummary summary = new StoreSummary();
+            summary.setId(rs.getObject("store_id", UUID.class));
+            summary.setName(rs.getString("name"));
+            summary.setSlug(rs.getString("slug"));
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            summary.setCreatedAt(createdAt == null ? null : createdAt.toInstant());
+            summary.setTotalProducts(rs.getLong("total_products"));
+            return summary;
+        });
+    }
+}
@@ -0,0 +1,200 @@
+package com.catalog_service.service;
+
+import com.catalog_service.entity.Category;
+import com.catalog_service.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory copy of the {@code catalog.categories} tree. Lookups by name or id, ancestor paths and
+ * subtree expansion are answered from an immutable snapshot without touching the database.
+ *
+ * <p>The snapshot is rebuilt after this instance creates a category and on a fixed delay, which
+ * picks up categories created elsewhere. Readers always see a complete tree; a rebuild swaps the
+ * whole snapshot at once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryCache {
+
+    public static final UUID DEFAULT_CATEGORY_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+    static final String DEFAULT_CATEGORY_NAME = "General";
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile Tree tree = Tree.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${catalog.categories.refresh-ms:300000}",
+            initialDelayString = "${catalog.categories.refresh-ms:300000}")
+    public void refresh() {
+        try {
+            tree = Tree.of(categoryRepository.findAll());
+            log.info("[catalog] Category tree loaded: {} categories", tree.nodes.size());
+        } catch (RuntimeException e) {
+            // Keep serving the previous tree; the next run retries
+            log.warn("[catalog] Category tree refresh failed", e);
+        }
+    }
+
+    /**
+     * Returns the id of the category with this name (exact match first, then case-insensitive).
+     */
+    public Optional<UUID> findIdByName(String name) {
+        if (name == null || name.isBlank()) {
+            return Optional.empty();
+        }
+        Tree current = tree;
+        UUID id = current.idsByName.get(name);
+        if (id == null) {
+            id = current.idsByFoldedName.get(name.toLowerCase(Locale.ROOT));
+        }
+        return Optional.ofNullable(id);
+    }
+
+    public String nameOf(UUID id) {
+        Node node = id == null ? null : tree.nodes.get(id);
+        return node != null ? node.name : DEFAULT_CATEGORY_NAME;
+    }
+
+    /**
+     * Category names from the root down to {@code id} itself; empty for unknown ids.
+     */
+    public List<String> pathOf(UUID id) {
+        Tree current = tree;
+        List<String> path = new ArrayList<>();
+        Set<UUID> seen = new LinkedHashSet<>();
+        Node node = id == null ? null : current.nodes.get(id);
+        // seen guards against a parent_id cycle in the data
+        while (node != null && seen.add(node.id)) {
+            path.add(node.name);
+            node = node.parentId == null ? null : current.nodes.get(node.parentId);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * {@code id} and all of its descendants; an id missing from the tree expands to itself.
+     */
+    public Set<UUID> subtreeOf(UUID id) {
+        Tree current = tree;
+        Set<UUID> ids = new LinkedHashSet<>();
+        Deque<UUID> pending = new ArrayDeque<>();
+        pending.add(id);
+        while (!pending.isEmpty()) {
+            UUID next = pending.poll();
+            if (ids.add(next)) {
+                pending.addAll(current.childrenOf(next));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the id of the category with this name, creating it if needed; blank names map to the default category.
+     */
+    public UUID resolveOrCreate(String name) {
+        if (name == null || name.isBlank()) {
+            return DEFAULT_CATEGORY_ID;
+        }
+        UUID id = tree.idsByName.get(name);
+        if (id != null) {
+            return id;
+        }
+        // Another instance may have created it since the last refresh
+        Optional<Category> existing = categoryRepository.findFirstByNameOrderById(name);
+        if (existing.isPresent()) {
+            return existing.get().getId();
+        }
+        Category created = categoryRepository.save(Category.builder().name(name).build());
+        refreshAfterCommit();
+        return created.getId();
+    }
+
+    private void refreshAfterCommit() {
+        // A category created in a transaction that later rolls back must not show up in the tree
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    private static final class Node {
+        final UUID id;
+        final String name;
+        final UUID parentId;
+
+        Node(UUID id, String name, UUID parentId) {
+            this.id = id;
+            this.name = name;
+            this.parentId = parentId;
+        }
+    }
+
+    private static final class Tree {
+
+        static final Tree EMPTY = new Tree(Map.of(), Map.of(), Map.of(), Map.of());
+
+        final Map<UUID, Node> nodes;
+        final Map<UUID, List<UUID>> children;
+        final Map<String, UUID> idsByName;
+        final Map<String, UUID> idsByFoldedName;
+
+        private Tree(Map<UUID, Node> nodes, Map<UUID, List<UUID>> children,
+                     Map<String, UUID> idsByName, Map<String, UUID> idsByFoldedName) {
+            this.nodes = nodes;
+            this.children = children;
+            this.idsByName = idsByName;
+            this.idsByFoldedName = idsByFoldedName;
+        }
+
+        static Tree of(List<Category> categories) {
+            Map<UUID, Node> nodes = new HashMap<>();
+            Map<UUID, List<UUID>> children = new HashMap<>();
+            Map<String, UUID> idsByName = new HashMap<>();
+            Map<String, UUID> idsByFoldedName = new HashMap<>();
+            for (Category category : categories) {
+                nodes.put(category.getId(), new Node(category.getId(), category.getName(), category.getParentId()));
+                if (category.getParentId() != null) {
+                    children.computeIfAbsent(category.getParentId(), k -> new ArrayList<>()).add(category.getId());
+                }
+                if (category.getName() != null) {
+                    idsByName.putIfAbsent(category.getName(), category.getId());
+                    idsByFoldedName.putIfAbsent(category.getName().toLowerCase(Locale.ROOT), category.getId());
+                }
+            }
+            return new Tree(nodes, children, idsByName, idsByFoldedName);
+        }
+
+        List<UUID> childrenOf(UUID id) {
+            return children.getOrDefault(id, List.of());
+        }
+    }
+}
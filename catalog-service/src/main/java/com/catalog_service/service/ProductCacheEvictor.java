@@ -0,0 +1,70 @@
+package com.catalog_service.service;
+
+import com.catalog_service.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Drops cached product reads after a write. Inside a transaction the eviction is deferred until
+ * commit, otherwise a concurrent read could repopulate the cache with the pre-commit row.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductCacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Evicts one product by id and, when known, by slug, and clears the home list.
+     */
+    public void evictProduct(UUID id, String slug) {
+        afterCommit(() -> {
+            evict(CacheConfig.PRODUCTS_BY_ID, id);
+            evict(CacheConfig.PRODUCTS_BY_SLUG, slug);
+            clear(CacheConfig.HOME);
+            log.debug("[catalog] Evicted cached product {} ({})", id, slug);
+        });
+    }
+
+    /**
+     * Clears the home list only; used when a product is added and no per-product entry can be stale.
+     */
+    public void evictHome() {
+        afterCommit(() -> clear(CacheConfig.HOME));
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
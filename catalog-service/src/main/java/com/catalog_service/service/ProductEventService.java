@@ -0,0 +1,126 @@
+package com.catalog_service.service;
+
+import com.catalog_service.event.ProductEvent;
+import com.catalog_service.event.ProductEvent.EventType;
+import com.catalog_service.repository.ProductJdbcRepository;
+import com.catalog_service.repository.ProductJdbcRepository.Row;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Applies seller-service product events to the catalog. Each call handles one consumer poll: events
+ * are collapsed to the last one per product and written with one JDBC batch per kind of change, in a
+ * single transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductEventService {
+
+    private final ProductJdbcRepository productJdbcRepository;
+    private final CategoryCache categoryCache;
+    private final ProductCacheEvictor productCacheEvictor;
+
+    /**
+     * @throws IllegalArgumentException if an event cannot be applied; the whole batch is rolled back
+     */
+    @Transactional
+    public void applyProductEvents(List<ProductEvent> events) {
+        Map<UUID, ProductEvent> latest = new LinkedHashMap<>();
+        // A create followed by an update in the same batch must still insert the row
+        Map<UUID, ProductEvent> creates = new LinkedHashMap<>();
+        for (ProductEvent event : events) {
+            if (event.getProductId() == null || event.getEventType() == null) {
+                throw new IllegalArgumentException("Product event without id or type: " + event);
+            }
+            latest.put(event.getProductId(), event);
+            if (event.getEventType() == EventType.PRODUCT_CREATED) {
+                creates.put(event.getProductId(), event);
+            } else if (event.getEventType() == EventType.PRODUCT_DELETED) {
+                creates.remove(event.getProductId());
+            }
+        }
+
+        List<Row> upserts = new ArrayList<>();
+        List<Row> updates = new ArrayList<>();
+        List<UUID> deletes = new ArrayList<>();
+        for (ProductEvent event : latest.values()) {
+            switch (event.getEventType()) {
+                case PRODUCT_DELETED -> deletes.add(event.getProductId());
+                case PRODUCT_UPDATED -> {
+                    ProductEvent created = creates.get(event.getProductId());
+                    if (created != null) {
+                        upserts.add(createRow(mergeCreate(created, event)));
+                    } else {
+                        // An update without a category keeps the current one
+                        UUID categoryId = event.getCategory() == null ? null : categoryCache.resolveOrCreate(event.getCategory());
+                        updates.add(new Row(event, categoryId, null));
+                    }
+                }
+                case PRODUCT_CREATED -> upserts.add(createRow(event));
+            }
+        }
+
+        // Slugs never change, so they can be read before the writes for cache eviction
+        Set<UUID> changed = new HashSet<>(deletes);
+        updates.forEach(row -> changed.add(row.getEvent().getProductId()));
+        upserts.forEach(row -> changed.add(row.getEvent().getProductId()));
+        Map<UUID, String> slugs = productJdbcRepository.findSlugs(changed);
+
+        productJdbcRepository.upsert(upserts);
+        int[] counts = productJdbcRepository.update(updates);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                log.warn("[catalog] Product not found for update: {}", updates.get(i).getEvent().getProductId());
+            }
+        }
+        productJdbcRepository.delete(deletes);
+
+        slugs.forEach(productCacheEvictor::evictProduct);
+        if (!upserts.isEmpty()) {
+            productCacheEvictor.evictHome();
+        }
+        log.info("[catalog] Applied {} product events: {} upserts, {} updates, {} deletes",
+                events.size(), upserts.size(), updates.size(), deletes.size());
+    }
+
+    private Row createRow(ProductEvent event) {
+        if (event.getSellerId() == null || event.getName() == null || event.getPrice() == null || event.getQuantity() == null) {
+            throw new IllegalArgumentException("Incomplete product created event: " + event.getProductId());
+        }
+        return new Row(event, categoryCache.resolveOrCreate(event.getCategory()), generateSlug(event.getName()));
+    }
+
+    // The create carries the store; later fields win where the update sets them
+    private static ProductEvent mergeCreate(ProductEvent created, ProductEvent update) {
+        return ProductEvent.builder()
+                .eventType(EventType.PRODUCT_CREATED)
+                .productId(created.getProductId())
+                .sellerId(update.getSellerId() != null ? update.getSellerId() : created.getSellerId())
+                .name(update.getName() != null ? update.getName() : created.getName())
+                .category(update.getCategory() != null ? update.getCategory() : created.getCategory())
+                .price(update.getPrice() != null ? update.getPrice() : created.getPrice())
+                .quantity(update.getQuantity() != null ? update.getQuantity() : created.getQuantity())
+                .description(update.getDescription())
+                .imageUrl(update.getImageUrl())
+                .isActive(update.getIsActive() != null ? update.getIsActive() : created.getIsActive())
+                .build();
+    }
+
+    static String generateSlug(String name) {
+        return name.toLowerCase()
+                .replaceAll("[^a-z0-9]+", "-")
+                .replaceAll("(^-|-$)", "") +
+                "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -1,16 +1,27 @@
 package com.catalog_service.service;
 
 import com.catalog_service.service.model.Product;
+import com.catalog_service.service.model.ProductSummary;
+import com.catalog_service.service.model.StoreProductCounts;
+import org.springframework.data.domain.Page;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface ProductService {
 
-	List<Product> home(int limit);
+	List<ProductSummary> home(int limit);
 
-	List<Product> list(String category, String q, String sort, int page);
+	/**
+	 * Returns one page of active products matching the given filters.
+	 * {@code page} is zero-based; {@code minPrice}/{@code maxPrice} are inclusive and optional.
+	 * {@code attrs} maps attribute keys to accepted values; every key must match one of its values.
+	 */
+	Page<ProductSummary> list(String category, String q, Double minPrice, Double maxPrice, Map<String, Set<String>> attrs,
+							  String sort, int page, int size);
 
 	Optional<Product> findBySlug(String slug);
 
@@ -39,9 +50,12 @@ public interface ProductService {
 
 	boolean decrementStock(UUID productId, int quantity);
 
-	List<Product> getAllActive();
+	/**
+	 * Returns one page of a store's active products; same {@code sort} values and zero-based {@code page} as {@link #list}.
+	 */
+	Page<ProductSummary> listByStore(UUID storeId, String sort, int page, int size);
 
-	List<Product> getByStoreId(UUID storeId);
+	StoreProductCounts countByStore(UUID storeId);
 }
 
 
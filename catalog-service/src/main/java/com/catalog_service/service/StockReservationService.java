@@ -0,0 +1,150 @@
+package com.catalog_service.service;
+
+import com.catalog_service.event.OrderCreatedEvent;
+import com.catalog_service.event.PaymentSucceededEvent;
+import com.catalog_service.repository.ProductJdbcRepository;
+import com.catalog_service.repository.StockReservationRepository;
+import com.catalog_service.service.model.StockLine;
+import com.catalog_service.service.model.StockReservationResult;
+import com.catalog_service.service.model.StockReservationResult.Outcome;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Takes stock for paid orders. Order lines are recorded as pending when the order is created and
+ * decremented once its payment succeeds, each line with a single conditional UPDATE sent in one JDBC
+ * batch. A payment consumed before its order is remembered, and the lines are then taken as soon as
+ * the order arrives. No row is read and locked ahead of the write, so concurrent checkouts only serialise on the
+ * products they share, for the duration of the UPDATE itself.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockReservationService {
+
+    // Lines are applied in product order so that two batches touching the same products cannot deadlock
+    private static final Comparator<StockLine> LOCK_ORDER = Comparator.comparing(StockLine::getProductId);
+
+    private final StockReservationRepository stockReservationRepository;
+    private final ProductJdbcRepository productJdbcRepository;
+    private final ProductCacheEvictor productCacheEvictor;
+
+    /**
+     * Decrements every line that has enough stock and reports the outcome per line, in input order.
+     * Lines without stock are left untouched; the others are committed together.
+     */
+    @Transactional
+    public List<StockReservationResult> reserve(List<StockLine> lines) {
+        if (lines.isEmpty()) {
+            return List.of();
+        }
+        List<StockLine> ordered = new ArrayList<>(lines);
+        ordered.sort(LOCK_ORDER);
+        int[] counts = stockReservationRepository.decrementStock(ordered);
+
+        Set<UUID> productIds = new LinkedHashSet<>();
+        ordered.forEach(line -> productIds.add(line.getProductId()));
+        Map<UUID, String> slugs = productJdbcRepository.findSlugs(productIds);
+
+        Map<StockLine, Outcome> outcomes = new LinkedHashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            StockLine line = ordered.get(i);
+            Outcome outcome = counts[i] > 0 ? Outcome.RESERVED
+                    : slugs.containsKey(line.getProductId()) ? Outcome.INSUFFICIENT_STOCK : Outcome.NOT_FOUND;
+            outcomes.put(line, outcome);
+            if (outcome == Outcome.RESERVED) {
+                productCacheEvictor.evictProduct(line.getProductId(), slugs.get(line.getProductId()));
+            }
+        }
+        return lines.stream().map(line -> new StockReservationResult(line, outcomes.get(line))).toList();
+    }
+
+    /**
+     * Records the lines of new orders as pending and takes stock right away for orders already paid.
+     */
+    @Transactional
+    public List<StockReservationResult> recordOrders(List<OrderCreatedEvent> events) {
+        Set<UUID> orderIds = new LinkedHashSet<>();
+        List<StockLine> lines = new ArrayList<>();
+        for (OrderCreatedEvent event : events) {
+            if (event.getOrderId() == null || event.getItems() == null) {
+                continue;
+            }
+            orderIds.add(event.getOrderId());
+            // The table is keyed by (order, product), so repeated products in one order are merged
+            Map<UUID, Integer> quantities = new LinkedHashMap<>();
+            for (OrderCreatedEvent.Item item : event.getItems()) {
+                if (item.getProductId() != null && item.getQuantity() != null && item.getQuantity() > 0) {
+                    quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+                }
+            }
+            quantities.forEach((productId, quantity) -> lines.add(new StockLine(event.getOrderId(), productId, quantity)));
+        }
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        if (!lines.isEmpty()) {
+            stockReservationRepository.savePending(lines);
+        }
+
+        List<UUID> paid = stockReservationRepository.markOrdered(orderIds);
+        if (paid.isEmpty()) {
+            return List.of();
+        }
+        log.info("[catalog] {} orders arrived after their payment", paid.size());
+        return takeStock(paid);
+    }
+
+    /**
+     * Takes stock for the pending lines of the paid orders. Redelivered payments are no-ops because
+     * claiming moves the lines out of PENDING in the same transaction as the decrement; payments whose
+     * order has not been recorded yet are kept for {@link #recordOrders}.
+     */
+    @Transactional
+    public List<StockReservationResult> recordPayments(List<PaymentSucceededEvent> events) {
+        Set<UUID> orderIds = new LinkedHashSet<>();
+        for (PaymentSucceededEvent event : events) {
+            if (event.getOrderId() != null && (event.getStatus() == null || "SUCCEEDED".equals(event.getStatus()))) {
+                orderIds.add(event.getOrderId());
+            }
+        }
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+
+        stockReservationRepository.markPaid(orderIds);
+        return takeStock(orderIds);
+    }
+
+    private List<StockReservationResult> takeStock(Collection<UUID> orderIds) {
+        List<StockLine> claimed = stockReservationRepository.claimPending(orderIds);
+        List<StockReservationResult> results = reserve(claimed);
+
+        List<StockLine> rejected = new ArrayList<>();
+        for (StockReservationResult result : results) {
+            if (!result.isReserved()) {
+                rejected.add(new StockLine(result.getOrderId(), result.getProductId(), result.getQuantity()));
+                log.error("[catalog] Could not take stock for paid order {}: product {} x{} ({})",
+                        result.getOrderId(), result.getProductId(), result.getQuantity(), result.getOutcome());
+            }
+        }
+        if (!rejected.isEmpty()) {
+            stockReservationRepository.markRejected(rejected);
+        }
+        log.info("[catalog] Stock taken for {} paid orders: {} lines reserved, {} rejected",
+                orderIds.size(), results.size() - rejected.size(), rejected.size());
+        return results;
+    }
+}
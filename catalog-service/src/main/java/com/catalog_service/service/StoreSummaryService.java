@@ -0,0 +1,68 @@
+package com.catalog_service.service;
+
+import com.catalog_service.repository.StoreSummaryRepository;
+import com.catalog_service.service.model.StoreSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Serves the active-store list from an in-memory snapshot of the per-store aggregate. The snapshot
+ * is replaced as a whole on a fixed delay, so readers never hit the database and never see a
+ * partially built list; a store's count may lag by up to one refresh interval.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StoreSummaryService {
+
+    private final StoreSummaryRepository storeSummaryRepository;
+
+    private volatile List<StoreSummary> snapshot;
+
+    public List<StoreSummary> getActiveStores() {
+        List<StoreSummary> current = snapshot;
+        if (current == null) {
+            // No snapshot yet (startup refresh still running or failed); load synchronously and let errors surface
+            current = load();
+        }
+        return current;
+    }
+
+    /**
+     * Returns one zero-based page of the snapshot.
+     */
+    public Page<StoreSummary> getActiveStores(int page, int size) {
+        List<StoreSummary> all = getActiveStores();
+        int from = (int) Math.min((long) page * size, all.size());
+        int to = Math.min(from + size, all.size());
+        return new PageImpl<>(all.subList(from, to), PageRequest.of(page, size), all.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${catalog.stores.snapshot-refresh-ms:60000}",
+            initialDelayString = "${catalog.stores.snapshot-refresh-ms:60000}")
+    public void refresh() {
+        try {
+            List<StoreSummary> stores = load();
+            log.debug("[catalog] Active store snapshot refreshed: {} stores", stores.size());
+        } catch (RuntimeException e) {
+            // Keep serving the previous snapshot; the next run retries
+            log.warn("[catalog] Active store snapshot refresh failed", e);
+        }
+    }
+
+    private List<StoreSummary> load() {
+        List<StoreSummary> stores = List.copyOf(storeSummaryRepository.findActiveStores());
+        snapshot = stores;
+        return stores;
+    }
+}
@@ -2,50 +2,101 @@ package com.catalog_service.service.impl;
 
 import com.catalog_service.service.ProductService;
 import com.catalog_service.service.model.Product;
+import com.catalog_service.service.model.ProductSummary;
+import com.catalog_service.service.model.StoreProductCounts;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class InMemoryProductService implements ProductService {
 
+	// Newest first; id breaks ties so products created in the same instant are both kept
+	private static final Comparator<Product> NEWEST_FIRST = Comparator.comparing(Product::getCreatedAt).reversed()
+			.thenComparing(Product::getId);
+
 	private final Map<UUID, Product> products = new ConcurrentHashMap<>();
+	// Secondary indexes kept alongside products, like a real store's unique slug index and created_at index
+	private final Map<String, UUID> idsBySlug = new ConcurrentHashMap<>();
+	private final NavigableSet<Product> newestFirst = new ConcurrentSkipListSet<>(NEWEST_FIRST);
 
 	@Override
-	public List<Product> home(int limit) {
-		return products.values().stream()
+	public List<ProductSummary> home(int limit) {
+		return newestFirst.stream()
 				.filter(Product::isActive)
-				.sorted(Comparator.comparing(Product::getCreatedAt).reversed())
 				.limit(limit)
+				.map(InMemoryProductService::toSummary)
 				.collect(Collectors.toList());
 	}
 
 	@Override
-	public List<Product> list(String category, String q, String sort, int page) {
-		return products.values().stream()
+	public Page<ProductSummary> list(String category, String q, Double minPrice, Double maxPrice, Map<String, Set<String>> attrs,
+									 String sort, int page, int size) {
+		// The in-memory model carries no attributes, so attrs filters are not applied here
+		Stream<Product> filtered = newestFirst.stream()
 				.filter(Product::isActive)
 				.filter(p -> category == null || category.isBlank() || Objects.equals(p.getCategoryId(), category) || p.getCategoryName().equalsIgnoreCase(category))
 				.filter(p -> q == null || q.isBlank() || p.getName().toLowerCase().contains(q.toLowerCase()))
-				.sorted(resolveComparator(sort))
+				.filter(p -> minPrice == null || p.getPrice() >= minPrice)
+				.filter(p -> maxPrice == null || p.getPrice() <= maxPrice);
+		List<Product> matches = sorted(filtered, sort).collect(Collectors.toList());
+		return page(matches, page, size);
+	}
+
+	private static Page<ProductSummary> page(List<Product> matches, int page, int size) {
+		int from = (int) Math.min((long) page * size, matches.size());
+		int to = Math.min(from + size, matches.size());
+		List<ProductSummary> content = matches.subList(from, to).stream()
+				.map(InMemoryProductService::toSummary)
 				.collect(Collectors.toList());
+		return new PageImpl<>(content, PageRequest.of(page, size), matches.size());
+	}
+
+	private static ProductSummary toSummary(Product p) {
+		ProductSummary summary = new ProductSummary(p.getId(), p.getStoreId(), p.getName(), p.getSlug(),
+				BigDecimal.valueOf(p.getPrice()), p.getCurrency(), p.getStock(),
+				p.getCategoryId() == null ? null : parseUuid(p.getCategoryId()),
+				BigDecimal.valueOf(p.getRatingAvg()), p.getRatingCount(), p.getImage(),
+				p.getDescription(), p.isActive(), p.getCreatedAt(), p.getVersion());
+		summary.setCategoryName(p.getCategoryName());
+		return summary;
 	}
 
-	private Comparator<Product> resolveComparator(String sort) {
-		if (sort == null || sort.isBlank()) return Comparator.comparing(Product::getCreatedAt).reversed();
+	private static UUID parseUuid(String value) {
+		try {
+			return UUID.fromString(value);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * The default order is read straight off the maintained index; other orders still sort, as a
+	 * database would without a matching index. The sort is stable, so ties keep newest-first order.
+	 */
+	private static Stream<Product> sorted(Stream<Product> stream, String sort) {
+		if (sort == null) return stream;
 		return switch (sort) {
-			case "price,asc" -> Comparator.comparing(Product::getPrice);
-			case "price,desc" -> Comparator.comparing(Product::getPrice).reversed();
-			case "name,asc" -> Comparator.comparing(Product::getName, String.CASE_INSENSITIVE_ORDER);
-			default -> Comparator.comparing(Product::getCreatedAt).reversed();
+			case "price,asc" -> stream.sorted(Comparator.comparing(Product::getPrice));
+			case "price,desc" -> stream.sorted(Comparator.comparing(Product::getPrice).reversed());
+			case "name,asc" -> stream.sorted(Comparator.comparing(Product::getName, String.CASE_INSENSITIVE_ORDER));
+			default -> stream;
 		};
 	}
 
 	@Override
 	public Optional<Product> findBySlug(String slug) {
-		return products.values().stream().filter(p -> slug.equals(p.getSlug())).findFirst();
+		UUID id = idsBySlug.get(slug);
+		return id == null ? Optional.empty() : Optional.ofNullable(products.get(id));
 	}
 
 	@Override
@@ -74,6 +125,9 @@ public class InMemoryProductService implements ProductService {
 		p.setDescription(description);
 		p.setCreatedAt(Instant.now());
 		products.put(id, p);
+		idsBySlug.put(slug, id);
+		// Indexed last: id and createdAt never change afterwards, so the set's ordering stays valid
+		newestFirst.add(p);
 		return p;
 	}
 
@@ -88,12 +142,17 @@ public class InMemoryProductService implements ProductService {
 		if (categoryId != null) p.setCategoryId(categoryId);
 		if (description != null) p.setDescription(description);
 		if (image != null) p.setImage(image);
+		p.setVersion(p.getVersion() + 1);
 		return p;
 	}
 
 	@Override
 	public void delete(UUID id) {
-		products.remove(id);
+		Product p = products.remove(id);
+		if (p != null) {
+			idsBySlug.remove(p.getSlug(), id);
+			newestFirst.remove(p);
+		}
 	}
 
 	@Override
@@ -101,6 +160,7 @@ public class InMemoryProductService implements ProductService {
 		Product p = products.get(id);
 		if (p == null) throw new NoSuchElementException("Product not found");
 		p.setActive(isActive);
+		p.setVersion(p.getVersion() + 1);
 		return p;
 	}
 
@@ -116,21 +176,30 @@ public class InMemoryProductService implements ProductService {
 		}
 
 		p.setStock(p.getStock() - quantity);
+		p.setVersion(p.getVersion() + 1);
 		return true;
 	}
 
 	@Override
-	public java.util.List<Product> getAllActive() {
-		return products.values().stream()
+	public Page<ProductSummary> listByStore(UUID storeId, String sort, int page, int size) {
+		Stream<Product> filtered = newestFirst.stream()
 				.filter(Product::isActive)
-				.collect(java.util.stream.Collectors.toList());
+				.filter(p -> storeId.equals(p.getStoreId()));
+		List<Product> matches = sorted(filtered, sort).collect(Collectors.toList());
+		return page(matches, page, size);
 	}
 
 	@Override
-	public java.util.List<Product> getByStoreId(UUID storeId) {
-		return products.values().stream()
-				.filter(product -> product.getStoreId() != null && product.getStoreId().equals(storeId))
-				.collect(java.util.stream.Collectors.toList());
+	public StoreProductCounts countByStore(UUID storeId) {
+		long total = 0;
+		long active = 0;
+		for (Product p : products.values()) {
+			if (storeId.equals(p.getStoreId())) {
+				total++;
+				if (p.isActive()) active++;
+			}
+		}
+		return new StoreProductCounts(total, active);
 	}
 }
 
@@ -1,17 +1,30 @@
 package com.catalog_service.service.impl;
 
 import com.catalog_service.entity.Product;
+import com.catalog_service.config.CacheConfig;
+import com.catalog_service.repository.ProductListingRepository;
 import com.catalog_service.repository.ProductRepository;
+import com.catalog_service.repository.ProductSpecifications;
+import com.catalog_service.service.CategoryCache;
+import com.catalog_service.service.ProductCacheEvictor;
 import com.catalog_service.service.ProductService;
+import com.catalog_service.service.model.ProductSummary;
+import com.catalog_service.service.model.StoreProductCounts;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -20,69 +33,82 @@ import java.util.UUID;
 public class JpaProductService implements ProductService {
     
     private final ProductRepository productRepository;
+    private final ProductListingRepository productListingRepository;
+    private final ProductCacheEvictor productCacheEvictor;
+    private final CategoryCache categoryCache;
     
     @Override
+    @Cacheable(cacheNames = CacheConfig.HOME, key = "#limit")
     @Transactional(readOnly = true)
-    public List<com.catalog_service.service.model.Product> home(int limit) {
-        List<Product> products = productRepository.findHomeProducts(PageRequest.of(0, limit));
-        return products.stream().map(this::convertToModel).toList();
+    public List<ProductSummary> home(int limit) {
+        List<ProductSummary> products = productListingRepository.findHome(limit);
+        products.forEach(this::fillCategoryName);
+        return products;
     }
     
     @Override
     @Transactional(readOnly = true)
-    public List<com.catalog_service.service.model.Product> list(String category, String q, String sort, int page) {
-        UUID categoryId = null;
-        if (category != null && !category.isBlank() && !category.equals("all")) {
-            try {
-                categoryId = UUID.fromString(category);
-            } catch (IllegalArgumentException e) {
-                // If category is not UUID, ignore it for now
-            }
+    public Page<ProductSummary> list(String category, String q, Double minPrice, Double maxPrice,
+                                     Map<String, Set<String>> attrs, String sort, int page, int size) {
+        // A category matches its whole subtree, e.g. "Elektronik" also lists "Telefon" products
+        Set<UUID> categoryIds = resolveCategory(category)
+                .map(categoryCache::subtreeOf)
+                .orElse(null);
+
+        Specification<Product> spec = Specification.where(ProductSpecifications.isActive())
+                .and(ProductSpecifications.inCategories(categoryIds))
+                .and(ProductSpecifications.nameContains(q))
+                .and(ProductSpecifications.priceAtLeast(minPrice == null ? null : BigDecimal.valueOf(minPrice)))
+                .and(ProductSpecifications.priceAtMost(maxPrice == null ? null : BigDecimal.valueOf(maxPrice)))
+                .and(ProductSpecifications.hasAttributes(attrs));
+
+        Page<ProductSummary> products = productListingRepository.findSummaries(spec, PageRequest.of(page, size, resolveSort(sort)));
+        log.debug("Listing page {} (size {}) matched {} products", page, size, products.getTotalElements());
+
+        products.forEach(this::fillCategoryName);
+        return products;
+    }
+
+    private void fillCategoryName(ProductSummary summary) {
+        summary.setCategoryName(categoryCache.nameOf(summary.getCategoryId()));
+    }
+
+    private Optional<UUID> resolveCategory(String category) {
+        if (category == null || category.isBlank() || category.equals("all")) {
+            return Optional.empty();
         }
-        
-        List<Product> products;
         try {
-            log.debug("Calling findProductsWithFilters with categoryId: {}", categoryId);
-            
-            // Önce veritabanından ürünleri al
-            products = productRepository.findProductsWithFilters(categoryId);
-            log.debug("Found {} products from database", products.size());
-            
-            // Arama filtresini Java tarafında uygula
-            if (q != null && !q.isBlank()) {
-                String searchQuery = q.trim().toLowerCase();
-                products = products.stream()
-                    .filter(product -> product.getName() != null && 
-                                     product.getName().toLowerCase().contains(searchQuery))
-                    .collect(java.util.stream.Collectors.toList());
-                log.debug("After search filter: {} products", products.size());
-            }
-        } catch (Exception e) {
-            log.error("Error in findProductsWithFilters", e);
-            throw e;
+            return Optional.of(UUID.fromString(category));
+        } catch (IllegalArgumentException e) {
+            // Not an id; unknown names are ignored rather than matching nothing
+            return categoryCache.findIdByName(category.trim());
         }
-        
-        // Apply sorting (simplified)
+    }
+
+    private Sort resolveSort(String sort) {
+        // id is appended as a tie-breaker so that pages stay stable when the primary key has duplicates
+        Sort primary;
         if ("price,asc".equals(sort)) {
-            products = products.stream()
-                    .sorted((a, b) -> a.getPrice().compareTo(b.getPrice()))
-                    .toList();
+            primary = Sort.by(Sort.Direction.ASC, "price");
         } else if ("price,desc".equals(sort)) {
-            products = products.stream()
-                    .sorted((a, b) -> b.getPrice().compareTo(a.getPrice()))
-                    .toList();
+            primary = Sort.by(Sort.Direction.DESC, "price");
+        } else if ("name,asc".equals(sort)) {
+            primary = Sort.by(Sort.Direction.ASC, "name");
+        } else {
+            primary = Sort.by(Sort.Direction.DESC, "createdAt");
         }
-        
-        return products.stream().map(this::convertToModel).toList();
+        return primary.and(Sort.by(Sort.Direction.ASC, "id"));
     }
     
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_BY_SLUG, key = "#slug", unless = "#result == null")
     @Transactional(readOnly = true)
     public Optional<com.catalog_service.service.model.Product> findBySlug(String slug) {
         return productRepository.findBySlug(slug).map(this::convertToModel);
     }
     
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_BY_ID, key = "#id", unless = "#result == null")
     @Transactional(readOnly = true)
     public Optional<com.catalog_service.service.model.Product> findById(UUID id) {
         return productRepository.findById(id).map(this::convertToModel);
@@ -116,6 +142,7 @@ public class JpaProductService implements ProductService {
         
         Product saved = productRepository.save(product);
         log.info("Created product: {} with ID: {}", saved.getName(), saved.getId());
+        productCacheEvictor.evictHome();
         
         return convertToModel(saved);
     }
@@ -142,6 +169,7 @@ public class JpaProductService implements ProductService {
         
         Product saved = productRepository.save(product);
         log.info("Updated product: {}", saved.getId());
+        productCacheEvictor.evictProduct(saved.getId(), saved.getSlug());
         
         return convertToModel(saved);
     }
@@ -149,10 +177,11 @@ public class JpaProductService implements ProductService {
     @Override
     @Transactional
     public void delete(UUID id) {
-        if (productRepository.existsById(id)) {
-            productRepository.deleteById(id);
+        productRepository.findById(id).ifPresent(product -> {
+            productRepository.delete(product);
             log.info("Deleted product: {}", id);
-        }
+            productCacheEvictor.evictProduct(id, product.getSlug());
+        });
     }
     
     @Override
@@ -164,6 +193,7 @@ public class JpaProductService implements ProductService {
         product.setIsActive(isActive);
         Product saved = productRepository.save(product);
         log.info("Set product {} active status to: {}", id, isActive);
+        productCacheEvictor.evictProduct(id, saved.getSlug());
         
         return convertToModel(saved);
     }
@@ -187,53 +217,50 @@ public class JpaProductService implements ProductService {
         model.setCurrency(entity.getCurrency());
         model.setStock(entity.getStock());
         model.setCategoryId(entity.getCategoryId().toString());
-        model.setCategoryName("General"); // TODO: Join with categories table
+        model.setCategoryName(categoryCache.nameOf(entity.getCategoryId()));
+        model.setCategoryPath(categoryCache.pathOf(entity.getCategoryId()));
         model.setRatingAvg(entity.getRatingAvg().doubleValue());
         model.setRatingCount(entity.getRatingCount());
         model.setActive(entity.isActive());
         model.setImage(entity.getImageUrl());
         model.setDescription(entity.getDescription());
         model.setCreatedAt(entity.getCreatedAt());
+        model.setVersion(entity.getVersion() == null ? 0 : entity.getVersion());
         return model;
     }
 
     @Override
     @Transactional
     public boolean decrementStock(UUID productId, int quantity) {
-        Product product = productRepository.findById(productId)
+        // Check and write in one statement; the slug lookup doubles as the existence check on failure
+        boolean decremented = productRepository.decrementStockIfAvailable(productId, quantity) > 0;
+        String slug = productRepository.findSlugById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
 
-        if (product.getStock() < quantity) {
-            log.warn("Insufficient stock for product {}: requested {}, available {}",
-                    productId, quantity, product.getStock());
+        if (!decremented) {
+            log.warn("Insufficient stock for product {}: requested {}", productId, quantity);
             return false;
         }
 
-        product.setStock(product.getStock() - quantity);
-        Product saved = productRepository.save(product);
-        log.info("Decremented stock for product {} by {} units. New stock: {}",
-                productId, quantity, saved.getStock());
+        log.info("Decremented stock for product {} by {} units", productId, quantity);
+        productCacheEvictor.evictProduct(productId, slug);
 
         return true;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public java.util.List<com.catalog_service.service.model.Product> getAllActive() {
-        java.util.List<Product> products = productRepository.findByIsActiveTrueOrderByCreatedAtDesc();
-        return products.stream()
-                .map(this::convertToModel)
-                .collect(java.util.stream.Collectors.toList());
+    public Page<ProductSummary> listByStore(UUID storeId, String sort, int page, int size) {
+        Specification<Product> spec = Specification.where(ProductSpecifications.inStore(storeId))
+                .and(ProductSpecifications.isActive());
+        Page<ProductSummary> products = productListingRepository.findSummaries(spec, PageRequest.of(page, size, resolveSort(sort)));
+        products.forEach(this::fillCategoryName);
+        return products;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public java.util.List<com.catalog_service.service.model.Product> getByStoreId(UUID storeId) {
-        java.util.List<Product> products = productRepository.findAll().stream()
-                .filter(product -> product.getStoreId().equals(storeId))
-                .collect(java.util.stream.Collectors.toList());
-        return products.stream()
-                .map(this::convertToModel)
-                .collect(java.util.stream.Collectors.toList());
+    public StoreProductCounts countByStore(UUID storeId) {
+        return productRepository.countByStore(storeId);
     }
 }
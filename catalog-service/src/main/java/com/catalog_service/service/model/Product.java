@@ -1,6 +1,9 @@
 package com.catalog_service.service.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 public class Product {
@@ -13,12 +16,15 @@ public class Product {
     private int stock;
     private String categoryId;
     private String categoryName;
+    private List<String> categoryPath;
     private double ratingAvg;
     private int ratingCount;
     private boolean active;
     private String image;
     private String description;
     private Instant createdAt;
+    @JsonIgnore
+    private long version;
 
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -38,6 +44,8 @@ public class Product {
     public void setCategoryId(String categoryId) { this.categoryId = categoryId; }
     public String getCategoryName() { return categoryName; }
     public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+    public List<String> getCategoryPath() { return categoryPath; }
+    public void setCategoryPath(List<String> categoryPath) { this.categoryPath = categoryPath; }
     public double getRatingAvg() { return ratingAvg; }
     public void setRatingAvg(double ratingAvg) { this.ratingAvg = ratingAvg; }
     public int getRatingCount() { return ratingCount; }
@@ -50,6 +58,8 @@ public class Product {
     public void setDescription(String description) { this.description = description; }
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
 }
 
 
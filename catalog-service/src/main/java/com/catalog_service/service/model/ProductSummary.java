@@ -0,0 +1,72 @@
+package com.catalog_service.service.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Listing row: the columns product cards need, selected straight into this DTO by JPQL.
+ * Unlike {@link Product} it carries no category path and keeps prices as {@link BigDecimal}.
+ */
+public class ProductSummary {
+    private final UUID id;
+    private final UUID storeId;
+    private final String name;
+    private final String slug;
+    private final BigDecimal price;
+    private final String currency;
+    private final int stock;
+    private final UUID categoryId;
+    private String categoryName;
+    private final BigDecimal ratingAvg;
+    private final int ratingCount;
+    private final String image;
+    private final String description;
+    private final boolean active;
+    private final Instant createdAt;
+    @JsonIgnore
+    private final long version;
+
+    /**
+     * Argument order is part of the JPQL constructor expressions in {@code ProductListingRepository}.
+     */
+    public ProductSummary(UUID id, UUID storeId, String name, String slug, BigDecimal price, String currency,
+                          Integer stock, UUID categoryId, BigDecimal ratingAvg, Integer ratingCount,
+                          String image, String description, Boolean active, Instant createdAt, Long version) {
+        this.id = id;
+        this.storeId = storeId;
+        this.name = name;
+        this.slug = slug;
+        this.price = price;
+        this.currency = currency;
+        this.stock = stock == null ? 0 : stock;
+        this.categoryId = categoryId;
+        this.ratingAvg = ratingAvg;
+        this.ratingCount = ratingCount == null ? 0 : ratingCount;
+        this.image = image;
+        this.description = description;
+        this.active = active == null || active;
+        this.createdAt = createdAt;
+        this.version = version == null ? 0 : version;
+    }
+
+    public UUID getId() { return id; }
+    public UUID getStoreId() { return storeId; }
+    public String getName() { return name; }
+    public String getSlug() { return slug; }
+    public BigDecimal getPrice() { return price; }
+    public String getCurrency() { return currency; }
+    public int getStock() { return stock; }
+    public UUID getCategoryId() { return categoryId; }
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+    public BigDecimal getRatingAvg() { return ratingAvg; }
+    public int getRatingCount() { return ratingCount; }
+    public String getImage() { return image; }
+    public String getDescription() { return description; }
+    public boolean isActive() { return active; }
+    public Instant getCreatedAt() { return createdAt; }
+    public long getVersion() { return version; }
+}
@@ -0,0 +1,22 @@
+package com.catalog_service.service.model;
+
+import java.util.UUID;
+
+/**
+ * A quantity of one product to take from stock; {@code orderId} is null for lines not tied to an order.
+ */
+public class StockLine {
+    private final UUID orderId;
+    private final UUID productId;
+    private final int quantity;
+
+    public StockLine(UUID orderId, UUID productId, int quantity) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    public UUID getOrderId() { return orderId; }
+    public UUID getProductId() { return productId; }
+    public int getQuantity() { return quantity; }
+}
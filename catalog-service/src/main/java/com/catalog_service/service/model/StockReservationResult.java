@@ -0,0 +1,26 @@
+package com.catalog_service.service.model;
+
+import java.util.UUID;
+
+public class StockReservationResult {
+
+    public enum Outcome { RESERVED, INSUFFICIENT_STOCK, NOT_FOUND }
+
+    private final UUID orderId;
+    private final UUID productId;
+    private final int quantity;
+    private final Outcome outcome;
+
+    public StockReservationResult(StockLine line, Outcome outcome) {
+        this.orderId = line.getOrderId();
+        this.productId = line.getProductId();
+        this.quantity = line.getQuantity();
+        this.outcome = outcome;
+    }
+
+    public UUID getOrderId() { return orderId; }
+    public UUID getProductId() { return productId; }
+    public int getQuantity() { return quantity; }
+    public Outcome getOutcome() { return outcome; }
+    public boolean isReserved() { return outcome == Outcome.RESERVED; }
+}
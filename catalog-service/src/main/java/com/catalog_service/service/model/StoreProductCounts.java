@@ -0,0 +1,17 @@
+package com.catalog_service.service.model;
+
+/**
+ * Product counts for a single store, computed by one aggregate query.
+ */
+public class StoreProductCounts {
+    private final long totalProducts;
+    private final long activeProducts;
+
+    public StoreProductCounts(Long totalProducts, Long activeProducts) {
+        this.totalProducts = totalProducts == null ? 0 : totalProducts;
+        this.activeProducts = activeProducts == null ? 0 : activeProducts;
+    }
+
+    public long getTotalProducts() { return totalProducts; }
+    public long getActiveProducts() { return activeProducts; }
+}
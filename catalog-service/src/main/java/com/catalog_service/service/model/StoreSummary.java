@@ -0,0 +1,27 @@
+package com.catalog_service.service.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A store that currently sells at least one active product, with its active product count.
+ * Name, slug and creation date come from {@code catalog.stores} and are null for stores without a row there.
+ */
+public class StoreSummary {
+    private UUID id;
+    private String name;
+    private String slug;
+    private Instant createdAt;
+    private long totalProducts;
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getSlug() { return slug; }
+    public void setSlug(String slug) { this.slug = slug; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+    public long getTotalProducts() { return totalProducts; }
+    public void setTotalProducts(long totalProducts) { this.totalProducts = totalProducts; }
+}
@@ -0,0 +1,16 @@
+-- Indexes backing the paginated /products listing
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Default ordering (newest first) within an optional category
+CREATE INDEX IF NOT EXISTS idx_products_active_category_created
+  ON catalog.products(category_id, created_at DESC) WHERE is_active = TRUE;
+CREATE INDEX IF NOT EXISTS idx_products_active_created
+  ON catalog.products(created_at DESC) WHERE is_active = TRUE;
+
+-- Price range filters and price sorting
+CREATE INDEX IF NOT EXISTS idx_products_active_price
+  ON catalog.products(price) WHERE is_active = TRUE;
+
+-- Substring search on name (LOWER(name) LIKE '%q%')
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm
+  ON catalog.products USING GIN (LOWER(name) gin_trgm_ops);
@@ -0,0 +1,7 @@
+-- Store pages: per-store listing (newest first) and total/active counts
+-- (store_id, is_active) answers both counts from the index; created_at keeps the active listing pre-sorted
+CREATE INDEX IF NOT EXISTS idx_products_store_active_created
+  ON catalog.products(store_id, is_active, created_at DESC);
+
+-- Superseded by the composite index above
+DROP INDEX IF EXISTS catalog.idx_products_store_id;
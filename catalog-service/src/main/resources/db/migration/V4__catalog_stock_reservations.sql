@@ -0,0 +1,16 @@
+-- Order lines waiting for payment; stock is taken when the order's payment succeeds
+CREATE TABLE IF NOT EXISTS catalog.stock_reservations (
+  order_id UUID NOT NULL,
+  product_id UUID NOT NULL,
+  quantity INT NOT NULL CHECK (quantity > 0),
+  status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+  created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+  processed_at TIMESTAMP,
+  PRIMARY KEY (order_id, product_id)
+);
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_pending
+  ON catalog.stock_reservations(created_at) WHERE status = 'PENDING';
+
+-- Safety net for the conditional decrement; NOT VALID so existing rows are not re-checked
+ALTER TABLE catalog.products DROP CONSTRAINT IF EXISTS chk_products_stock_non_negative;
+ALTER TABLE catalog.products ADD CONSTRAINT chk_products_stock_non_negative CHECK (stock >= 0) NOT VALID;
@@ -0,0 +1,10 @@
+-- Attribute filters: EXISTS (... WHERE key = ? AND lower(value) IN (...)) probes by attribute first
+CREATE INDEX IF NOT EXISTS idx_product_attrs_key_value
+  ON catalog.product_attrs(key, LOWER(value), product_id);
+
+-- Price ranges within a category (the price-only index covers listings without a category)
+CREATE INDEX IF NOT EXISTS idx_products_active_category_price
+  ON catalog.products(category_id, price) WHERE is_active = TRUE;
+
+-- The (product_id, key) primary key already serves lookups by product
+DROP INDEX IF EXISTS catalog.idx_product_attrs_product;
@@ -0,0 +1,18 @@
+-- Row version for HTTP ETags, bumped by the database so that every write path (JPA, JDBC batches,
+-- conditional stock updates) changes it
+ALTER TABLE catalog.products ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+CREATE OR REPLACE FUNCTION catalog.products_bump_version() RETURNS trigger AS $$
+BEGIN
+  NEW.version := OLD.version + 1;
+  NEW.updated_at := NOW();
+  RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_products_version ON catalog.products;
+CREATE TRIGGER trg_products_version
+  BEFORE UPDATE ON catalog.products
+  FOR EACH ROW
+  WHEN (OLD IS DISTINCT FROM NEW)
+  EXECUTE FUNCTION catalog.products_bump_version();
@@ -0,0 +1,7 @@
+-- Order and payment events are consumed by separate listeners and may arrive in either order.
+-- Both sides upsert the order's row here, so they serialise on it and the later one takes the stock.
+CREATE TABLE IF NOT EXISTS catalog.stock_orders (
+  order_id UUID PRIMARY KEY,
+  ordered_at TIMESTAMP,
+  paid_at TIMESTAMP
+);
@@ -0,0 +1,65 @@
+package com.catalog_service.service;
+
+import com.catalog_service.entity.Category;
+import com.catalog_service.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryCacheTest {
+
+    private static final UUID ELEKTRONIK = UUID.randomUUID();
+    private static final UUID TELEFON = UUID.randomUUID();
+    private static final UUID AKILLI_TELEFON = UUID.randomUUID();
+    private static final UUID GIYIM = UUID.randomUUID();
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @InjectMocks
+    private CategoryCache categoryCache;
+
+    @BeforeEach
+    void loadTree() {
+        when(categoryRepository.findAll()).thenReturn(List.of(
+                new Category(ELEKTRONIK, "Elektronik", null),
+                new Category(TELEFON, "Telefon", ELEKTRONIK),
+                new Category(AKILLI_TELEFON, "Akıllı Telefon", TELEFON),
+                new Category(GIYIM, "Giyim", null)));
+        categoryCache.refresh();
+    }
+
+    @Test
+    void shouldExpandSubtreesAndBuildAncestorPaths() {
+        // When / Then
+        assertThat(categoryCache.subtreeOf(ELEKTRONIK)).containsExactlyInAnyOrder(ELEKTRONIK, TELEFON, AKILLI_TELEFON);
+        assertThat(categoryCache.subtreeOf(GIYIM)).containsExactly(GIYIM);
+        assertThat(categoryCache.pathOf(AKILLI_TELEFON)).containsExactly("Elektronik", "Telefon", "Akıllı Telefon");
+        assertThat(categoryCache.nameOf(UUID.randomUUID())).isEqualTo("General");
+    }
+
+    @Test
+    void shouldResolveKnownNamesWithoutQueryingTheDatabase() {
+        // When
+        UUID id = categoryCache.resolveOrCreate("Telefon");
+
+        // Then
+        assertThat(id).isEqualTo(TELEFON);
+        assertThat(categoryCache.findIdByName("giyim")).contains(GIYIM);
+        verify(categoryRepository, never()).findFirstByNameOrderById(any());
+        verify(categoryRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,68 @@
+package com.catalog_service.service;
+
+import com.catalog_service.config.CacheConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheEvictorTest {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+            CacheConfig.PRODUCTS_BY_SLUG, CacheConfig.PRODUCTS_BY_ID, CacheConfig.HOME);
+    private final ProductCacheEvictor evictor = new ProductCacheEvictor(cacheManager);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldEvictProductByIdAndSlugAndClearHome() {
+        // Given
+        UUID id = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        cache(CacheConfig.PRODUCTS_BY_ID).put(id, "p");
+        cache(CacheConfig.PRODUCTS_BY_ID).put(other, "o");
+        cache(CacheConfig.PRODUCTS_BY_SLUG).put("kulaklik-1a2b3c4d", "p");
+        cache(CacheConfig.HOME).put(24, List.of("p"));
+
+        // When
+        evictor.evictProduct(id, "kulaklik-1a2b3c4d");
+
+        // Then
+        assertThat(cache(CacheConfig.PRODUCTS_BY_ID).get(id)).isNull();
+        assertThat(cache(CacheConfig.PRODUCTS_BY_ID).get(other)).isNotNull();
+        assertThat(cache(CacheConfig.PRODUCTS_BY_SLUG).get("kulaklik-1a2b3c4d")).isNull();
+        assertThat(cache(CacheConfig.HOME).get(24)).isNull();
+    }
+
+    @Test
+    void shouldDeferEvictionUntilCommitInsideTransaction() {
+        // Given
+        UUID id = UUID.randomUUID();
+        cache(CacheConfig.PRODUCTS_BY_ID).put(id, "p");
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        evictor.evictProduct(id, null);
+
+        // Then
+        assertThat(cache(CacheConfig.PRODUCTS_BY_ID).get(id)).isNotNull();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache(CacheConfig.PRODUCTS_BY_ID).get(id)).isNull();
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+}
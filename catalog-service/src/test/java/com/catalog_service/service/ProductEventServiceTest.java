@@ -0,0 +1,98 @@
+package com.catalog_service.service;
+
+import com.catalog_service.event.ProductEvent;
+import com.catalog_service.event.ProductEvent.EventType;
+import com.catalog_service.repository.ProductJdbcRepository;
+import com.catalog_service.repository.ProductJdbcRepository.Row;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductEventServiceTest {
+
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+
+    @Mock
+    private CategoryCache categoryCache;
+
+    @Mock
+    private ProductCacheEvictor productCacheEvictor;
+
+    @InjectMocks
+    private ProductEventService productEventService;
+
+    @Test
+    void shouldCollapseEventsPerProductToTheLastOne() {
+        // Given: a create followed by an update, and an update followed by a delete
+        UUID created = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        UUID categoryId = UUID.randomUUID();
+        when(categoryCache.resolveOrCreate("Elektronik")).thenReturn(categoryId);
+        when(productJdbcRepository.update(anyList())).thenReturn(new int[0]);
+        when(productJdbcRepository.findSlugs(any())).thenReturn(Map.of(deleted, "old-slug"));
+
+        // When
+        productEventService.applyProductEvents(List.of(
+                event(EventType.PRODUCT_CREATED, created, "Kulaklık", 10),
+                event(EventType.PRODUCT_UPDATED, deleted, "Eski", 1),
+                event(EventType.PRODUCT_UPDATED, created, null, 7),
+                event(EventType.PRODUCT_DELETED, deleted, null, null)));
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Row>> upserts = ArgumentCaptor.forClass(List.class);
+        verify(productJdbcRepository).upsert(upserts.capture());
+        assertThat(upserts.getValue()).singleElement().satisfies(row -> {
+            assertThat(row.getEvent().getProductId()).isEqualTo(created);
+            assertThat(row.getEvent().getName()).isEqualTo("Kulaklık");
+            assertThat(row.getEvent().getQuantity()).isEqualTo(7);
+            assertThat(row.getCategoryId()).isEqualTo(categoryId);
+        });
+        verify(productJdbcRepository).update(List.of());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<UUID>> deletes = ArgumentCaptor.forClass(Collection.class);
+        verify(productJdbcRepository).delete(deletes.capture());
+        assertThat(deletes.getValue()).containsExactly(deleted);
+        verify(productCacheEvictor).evictProduct(deleted, "old-slug");
+    }
+
+    @Test
+    void shouldRejectIncompleteCreate() {
+        // Given
+        ProductEvent event = event(EventType.PRODUCT_CREATED, UUID.randomUUID(), null, 1);
+
+        // When / Then
+        assertThatThrownBy(() -> productEventService.applyProductEvents(List.of(event)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ProductEvent event(EventType type, UUID productId, String name, Integer quantity) {
+        return ProductEvent.builder()
+                .eventType(type)
+                .productId(productId)
+                .name(name)
+                .category(type == EventType.PRODUCT_CREATED ? "Elektronik" : null)
+                .price(BigDecimal.TEN)
+                .quantity(quantity)
+                .sellerId(UUID.randomUUID())
+                .build();
+    }
+}
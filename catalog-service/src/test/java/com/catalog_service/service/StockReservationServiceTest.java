@@ -0,0 +1,153 @@
+package com.catalog_service.service;
+
+import com.catalog_service.event.OrderCreatedEvent;
+import com.catalog_service.event.PaymentSucceededEvent;
+import com.catalog_service.repository.ProductJdbcRepository;
+import com.catalog_service.repository.StockReservationRepository;
+import com.catalog_service.service.model.StockLine;
+import com.catalog_service.service.model.StockReservationResult;
+import com.catalog_service.service.model.StockReservationResult.Outcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+
+    @Mock
+    private ProductCacheEvictor productCacheEvictor;
+
+    @InjectMocks
+    private StockReservationService stockReservationService;
+
+    @Test
+    void shouldReportOutcomePerLineInInputOrder() {
+        // Given: lines are applied sorted by product id, results come back in the caller's order
+        UUID low = UUID.fromString("10000000-0000-0000-0000-000000000001");
+        UUID high = UUID.fromString("30000000-0000-0000-0000-000000000001");
+        UUID missing = UUID.fromString("20000000-0000-0000-0000-000000000001");
+        StockLine short1 = new StockLine(null, high, 5);
+        StockLine ok = new StockLine(null, low, 1);
+        StockLine gone = new StockLine(null, missing, 1);
+        when(stockReservationRepository.decrementStock(anyList())).thenReturn(new int[] {1, 0, 0});
+        when(productJdbcRepository.findSlugs(any())).thenReturn(Map.of(low, "low", high, "high"));
+
+        // When
+        List<StockReservationResult> results = stockReservationService.reserve(List.of(short1, ok, gone));
+
+        // Then
+        assertThat(results).extracting(StockReservationResult::getOutcome)
+                .containsExactly(Outcome.INSUFFICIENT_STOCK, Outcome.RESERVED, Outcome.NOT_FOUND);
+        verify(productCacheEvictor).evictProduct(low, "low");
+        verify(productCacheEvictor, never()).evictProduct(high, "high");
+    }
+
+    @Test
+    void shouldMarkShortLinesOfPaidOrdersRejected() {
+        // Given
+        UUID orderId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        StockLine line = new StockLine(orderId, productId, 3);
+        when(stockReservationRepository.claimPending(any())).thenReturn(List.of(line));
+        when(stockReservationRepository.decrementStock(anyList())).thenReturn(new int[] {0});
+        when(productJdbcRepository.findSlugs(any())).thenReturn(Map.of(productId, "p"));
+
+        // When
+        stockReservationService.recordPayments(List.of(new PaymentSucceededEvent(orderId, "SUCCEEDED")));
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockLine>> rejected = ArgumentCaptor.forClass(List.class);
+        verify(stockReservationRepository).markRejected(rejected.capture());
+        assertThat(rejected.getValue()).singleElement()
+                .satisfies(l -> assertThat(l.getProductId()).isEqualTo(productId));
+    }
+
+    @Test
+    void shouldTakeStockWhenOrderArrivesAfterItsPayment() {
+        // Given: the payment was consumed first, so markOrdered reports the order as already paid
+        UUID orderId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        OrderCreatedEvent order = new OrderCreatedEvent(orderId, List.of(new OrderCreatedEvent.Item(productId, 2)));
+        when(stockReservationRepository.markOrdered(any())).thenReturn(List.of(orderId));
+        when(stockReservationRepository.claimPending(List.of(orderId)))
+                .thenReturn(List.of(new StockLine(orderId, productId, 2)));
+        when(stockReservationRepository.decrementStock(anyList())).thenReturn(new int[] {1});
+        when(productJdbcRepository.findSlugs(any())).thenReturn(Map.of(productId, "p"));
+
+        // When
+        List<StockReservationResult> results = stockReservationService.recordOrders(List.of(order));
+
+        // Then
+        verify(stockReservationRepository).savePending(anyList());
+        assertThat(results).singleElement().satisfies(r -> assertThat(r.isReserved()).isTrue());
+        verify(productCacheEvictor).evictProduct(productId, "p");
+    }
+
+    @Test
+    void shouldOnlyRecordPendingLinesForUnpaidOrders() {
+        // Given
+        UUID orderId = UUID.randomUUID();
+        OrderCreatedEvent order = new OrderCreatedEvent(orderId, List.of(new OrderCreatedEvent.Item(UUID.randomUUID(), 1)));
+        when(stockReservationRepository.markOrdered(any())).thenReturn(List.of());
+
+        // When
+        List<StockReservationResult> results = stockReservationService.recordOrders(List.of(order));
+
+        // Then
+        assertThat(results).isEmpty();
+        verify(stockReservationRepository).savePending(anyList());
+        verify(stockReservationRepository, never()).claimPending(any());
+        verify(stockReservationRepository, never()).decrementStock(anyList());
+    }
+
+    @Test
+    void shouldRememberPaymentBeforeClaimingLines() {
+        // Given
+        UUID orderId = UUID.randomUUID();
+        when(stockReservationRepository.claimPending(any())).thenReturn(List.of());
+
+        // When
+        List<StockReservationResult> results =
+                stockReservationService.recordPayments(List.of(new PaymentSucceededEvent(orderId, "SUCCEEDED")));
+
+        // Then
+        assertThat(results).isEmpty();
+        InOrder inOrder = inOrder(stockReservationRepository);
+        inOrder.verify(stockReservationRepository).markPaid(Set.of(orderId));
+        inOrder.verify(stockReservationRepository).claimPending(Set.of(orderId));
+    }
+
+    @Test
+    void shouldIgnoreFailedPayments() {
+        // When
+        stockReservationService.recordPayments(List.of(new PaymentSucceededEvent(UUID.randomUUID(), "FAILED")));
+
+        // Then
+        verifyNoInteractions(stockReservationRepository);
+    }
+}
@@ -0,0 +1,66 @@
+package com.catalog_service.service;
+
+import com.catalog_service.repository.StoreSummaryRepository;
+import com.catalog_service.service.model.StoreSummary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StoreSummaryServiceTest {
+
+    @Mock
+    private StoreSummaryRepository storeSummaryRepository;
+
+    @InjectMocks
+    private StoreSummaryService storeSummaryService;
+
+    @Test
+    void shouldPageFromSnapshotWithoutQueryingAgain() {
+        // Given
+        when(storeSummaryRepository.findActiveStores()).thenReturn(List.of(store(5), store(3), store(1)));
+        storeSummaryService.refresh();
+
+        // When
+        Page<StoreSummary> second = storeSummaryService.getActiveStores(1, 2);
+
+        // Then
+        assertThat(second.getTotalElements()).isEqualTo(3);
+        assertThat(second.getContent()).extracting(StoreSummary::getTotalProducts).containsExactly(1L);
+        verify(storeSummaryRepository, times(1)).findActiveStores();
+    }
+
+    @Test
+    void shouldKeepPreviousSnapshotWhenRefreshFails() {
+        // Given
+        when(storeSummaryRepository.findActiveStores())
+                .thenReturn(List.of(store(2)))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+        storeSummaryService.refresh();
+
+        // When
+        storeSummaryService.refresh();
+
+        // Then
+        assertThat(storeSummaryService.getActiveStores()).hasSize(1);
+    }
+
+    private static StoreSummary store(long totalProducts) {
+        StoreSummary summary = new StoreSummary();
+        summary.setId(UUID.randomUUID());
+        summary.setTotalProducts(totalProducts);
+        return summary;
+    }
+}
@@ -0,0 +1,59 @@
+package com.catalog_service.service.impl;
+
+import com.catalog_service.service.model.Product;
+import com.catalog_service.service.model.ProductSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryProductServiceTest {
+
+    private final InMemoryProductService service = new InMemoryProductService();
+
+    @Test
+    void shouldFindBySlugUntilDeleted() {
+        // Given
+        Product created = service.create("Kulaklik", 499.0, "TRY", 5, "c1", null, null);
+        service.create("Telefon", 9999.0, "TRY", 2, "c1", null, null);
+
+        // When / Then
+        assertThat(service.findBySlug(created.getSlug())).containsSame(created);
+
+        service.delete(created.getId());
+        assertThat(service.findBySlug(created.getSlug())).isEmpty();
+        assertThat(service.home(10)).extracting(ProductSummary::getName).containsExactly("Telefon");
+    }
+
+    @Test
+    void shouldKeepDescriptionAndActiveFlagOnSummaries() {
+        // Given
+        service.create("Kulaklik", 499.0, "TRY", 5, "c1", "Kablosuz kulak ustu kulaklik", null);
+
+        // When
+        ProductSummary summary = service.home(10).get(0);
+
+        // Then
+        assertThat(summary.getDescription()).isEqualTo("Kablosuz kulak ustu kulaklik");
+        assertThat(summary.isActive()).isTrue();
+    }
+
+    @Test
+    void shouldListActiveProductsInRequestedOrder() {
+        // Given
+        service.create("B", 30.0, "TRY", 1, "c1", null, null);
+        Product hidden = service.create("C", 10.0, "TRY", 1, "c1", null, null);
+        service.create("A", 20.0, "TRY", 1, "c1", null, null);
+        service.setActive(hidden.getId(), false);
+
+        // When
+        List<ProductSummary> byPrice = service.list(null, null, null, null, null, "price,asc", 0, 10).getContent();
+        List<ProductSummary> byName = service.list(null, null, null, null, null, "name,asc", 0, 10).getContent();
+
+        // Then
+        assertThat(byPrice).extracting(ProductSummary::getName).containsExactly("A", "B");
+        assertThat(byName).extracting(ProductSummary::getName).containsExactly("A", "B");
+        assertThat(service.home(10)).hasSize(2);
+    }
+}
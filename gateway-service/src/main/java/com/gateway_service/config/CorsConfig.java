@@ -15,6 +15,10 @@ public class CorsConfig {
         corsConfig.addAllowedOriginPattern("*");
         corsConfig.addAllowedMethod("*");
         corsConfig.addAllowedHeader("*");
+        // Paging metadata is returned in headers, browsers only see them when exposed
+        corsConfig.addExposedHeader("X-Total-Count");
+        corsConfig.addExposedHeader("X-Total-Pages");
+        corsConfig.addExposedHeader("X-Next-Cursor");
         corsConfig.setAllowCredentials(true);
         corsConfig.setMaxAge(3600L);
 
@@ -48,6 +48,8 @@ public class SecurityConfig {
                         
                         // Public search endpoints
                         .pathMatchers(HttpMethod.GET, "/api/search").permitAll()
+                        .pathMatchers(HttpMethod.GET, "/api/search/suggest", "/api/search/faceted",
+                                "/api/search/popular", "/api/search/stream").permitAll()
                         
                         // Public review endpoints (read only)
                         .pathMatchers(HttpMethod.GET, "/api/review/product/**").permitAll()
@@ -66,6 +68,7 @@ public class SecurityConfig {
                         .pathMatchers(HttpMethod.GET, "/api/seller/applications").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.PATCH, "/api/seller/applications/**").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.PATCH, "/api/review/*/approve").hasRole("ADMIN")
+                        .pathMatchers("/api/search/admin/**").hasRole("ADMIN")
                         
                         // Seller endpoints
                         .pathMatchers("/api/catalog/my/**").hasRole("SELLER")
@@ -12,6 +12,7 @@ sleep 30
 kafka-topics --create --topic order.created --bootstrap-server localhost:9092 --partitions 3 --replication-factor 1 --if-not-exists
 kafka-topics --create --topic payment.succeeded --bootstrap-server localhost:9092 --partitions 3 --replication-factor 1 --if-not-exists  
 kafka-topics --create --topic payment.failed --bootstrap-server localhost:9092 --partitions 3 --replication-factor 1 --if-not-exists
+kafka-topics --create --topic product.events --bootstrap-server localhost:9092 --partitions 3 --replication-factor 1 --if-not-exists
 kafka-topics --create --topic product.updated --bootstrap-server localhost:9092 --partitions 3 --replication-factor 1 --if-not-exists
 kafka-topics --create --topic store.updated --bootstrap-server localhost:9092 --partitions 3 --replication-factor 1 --if-not-exists
 kafka-topics --create --topic review.approved --bootstrap-server localhost:9092 --partitions 3 --replication-factor 1 --if-not-exists
@@ -3,13 +3,12 @@ package com.order_payment_service.controller;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.order_payment_service.dto.iyzico.*;
 import com.order_payment_service.entity.Cart;
-import com.order_payment_service.entity.IdempotencyKey;
 import com.order_payment_service.entity.Order;
-import com.order_payment_service.repository.IdempotencyKeyRepository;
 import com.order_payment_service.service.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -30,7 +29,7 @@ public class OrderPaymentController {
     private final WebhookService webhookService;
     private final CartService cartService;
     private final OrderService orderService;
-    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyService idempotencyService;
     private final RestTemplate restTemplate;
     
     @Value("${auth.service.url:http://auth:8081}")
@@ -102,39 +101,49 @@ public class OrderPaymentController {
     }
 
     @PostMapping("/api/order/checkout")
-    public ResponseEntity<Map<String, Object>> checkout(@RequestBody Map<String, Object> body,
-                                                       @RequestHeader("Idempotency-Key") String idempotencyKey,
-                                                       @RequestHeader(value = "X-User-Id", required = false) String userId) {
+    public ResponseEntity<?> checkout(@RequestBody Map<String, Object> body,
+                                      @RequestHeader("Idempotency-Key") String idempotencyKey,
+                                      @RequestHeader(value = "X-User-Id", required = false) String userId) {
         try {
             UUID uid = userId == null ? UUID.randomUUID() : UUID.fromString(userId);
 
-            // Idempotency check using IdempotencyKey entity
-            if (idempotencyKeyRepository.existsByKey(idempotencyKey)) {
-                log.warn("Duplicate request detected for idempotency key: {}", idempotencyKey);
-                return ResponseEntity.status(HttpStatus.CONFLICT)
-                        .body(Map.of("error", "Duplicate request - idempotency key already used"));
+            // Hash of the request body, so a key reused for a different request is rejected; the
+            // service also binds the key to the user
+            String requestHash = createRequestHash(body.toString());
+
+            IdempotencyService.Claim claim = idempotencyService.claim(idempotencyKey, uid, requestHash);
+            switch (claim.getOutcome()) {
+                case REPLAY -> {
+                    log.info("Replaying stored checkout response for idempotency key: {}", idempotencyKey);
+                    return storedResponse(claim.getResponse(), true);
+                }
+                case CONFLICT -> {
+                    log.warn("Duplicate request detected for idempotency key: {}", idempotencyKey);
+                    return ResponseEntity.status(HttpStatus.CONFLICT)
+                            .body(Map.of("error", "Duplicate request - idempotency key is in use"));
+                }
+                case MISMATCH -> {
+                    log.warn("Idempotency key {} reused with a different request or user", idempotencyKey);
+                    return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                            .body(Map.of("error", "Idempotency key already used for a different request"));
+                }
+                default -> {
+                }
             }
 
             log.info("Processing checkout for user: {} with idempotency key: {}", uid, idempotencyKey);
 
-            // Create hash of request body for additional verification
-            String requestHash = createRequestHash(body.toString());
-            
-            // Save idempotency key
-            IdempotencyKey idempotencyKeyEntity = IdempotencyKey.builder()
-                    .key(idempotencyKey)
-                    .requestHash(requestHash)
-                    .build();
-            idempotencyKeyRepository.save(idempotencyKeyEntity);
-
-            Order order = orderService.createOrder(uid, body);
-
-            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
-                "orderId", order.getId(),
-                "totalAmount", order.getTotalAmount(),
-                "currency", order.getCurrency(),
-                "status", order.getStatus()
-            ));
+            IdempotencyService.StoredResponse response = idempotencyService.execute(idempotencyKey, claim.getToken(),
+                    uid, requestHash, HttpStatus.CREATED.value(), () -> {
+                        Order order = orderService.createOrder(uid, body);
+                        return Map.of(
+                            "orderId", order.getId(),
+                            "totalAmount", order.getTotalAmount(),
+                            "currency", order.getCurrency(),
+                            "status", order.getStatus()
+                        );
+                    });
+            return storedResponse(response, false);
         } catch (Exception e) {
             log.error("Failed to create order", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -142,6 +151,14 @@ public class OrderPaymentController {
         }
     }
 
+    // The stored JSON is sent as is, so a replay is byte-for-byte the original response
+    private static ResponseEntity<String> storedResponse(IdempotencyService.StoredResponse response, boolean replayed) {
+        return ResponseEntity.status(response.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotent-Replayed", String.valueOf(replayed))
+                .body(response.getBody());
+    }
+
     @GetMapping("/api/order/{id}")
     public ResponseEntity<Map<String, Object>> getOrder(@PathVariable String id,
                                                        @RequestHeader(value = "X-User-Id", required = false) String userId) {
@@ -0,0 +1,38 @@
+package com.order_payment_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Full state of one cart at a point in time. Written to the cart journal after every change and
+ * used as the unit of write-behind, so replaying or re-flushing a snapshot is always idempotent.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartSnapshot {
+    private UUID userId;
+    private UUID cartId;
+    private String currency;
+    private BigDecimal totalAmount;
+    private List<Line> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private UUID id;
+        private UUID productId;
+        private String name;
+        private Integer quantity;
+        private BigDecimal price;
+    }
+}
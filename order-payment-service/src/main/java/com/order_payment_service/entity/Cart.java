@@ -52,18 +52,18 @@ public class Cart {
     public void addItem(CartItem item) {
         items.add(item);
         item.setCart(this);
-        recalculateTotal();
+        totalAmount = totalAmount.add(lineTotal(item));
     }
 
     public void removeItem(CartItem item) {
-        items.remove(item);
+        if (items.remove(item)) {
+            totalAmount = totalAmount.subtract(lineTotal(item));
+        }
         item.setCart(null);
-        recalculateTotal();
     }
 
-    private void recalculateTotal() {
-        totalAmount = items.stream()
-                .map(CartItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    // totalPrice is only filled in on persist, so derive it for items that have not been saved yet
+    private static BigDecimal lineTotal(CartItem item) {
+        return item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
     }
 }
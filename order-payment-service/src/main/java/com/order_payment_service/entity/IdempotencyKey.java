@@ -24,7 +24,28 @@ public class IdempotencyKey {
     @Column(name = "request_hash", nullable = false)
     private String requestHash;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "locked_at")
+    private Instant lockedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
+
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED
+    }
 }
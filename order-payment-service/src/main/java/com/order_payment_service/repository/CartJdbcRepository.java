@@ -0,0 +1,159 @@
+package com.order_payment_service.repository;
+
+import com.order_payment_service.dto.CartSnapshot;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access to carts for the in-process cart tier: one query to load a cart with its items,
+ * and change writes batched across many carts. A changed line costs one upsert on
+ * {@code (cart_id, product_id)} regardless of how many items the cart holds.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CartJdbcRepository {
+
+    private static final String FIND_BY_USER_SQL = """
+            SELECT c.id AS cart_id, c.currency, i.id AS item_id, i.product_id, i.name, i.quantity, i.price
+            FROM order_payment.carts c
+            LEFT JOIN order_payment.cart_items i ON i.cart_id = c.id
+            WHERE c.user_id = ?
+            ORDER BY i.created_at, i.id
+            """;
+
+    private static final String UPSERT_CART_SQL = """
+            INSERT INTO order_payment.carts (id, user_id, total_amount, currency)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (user_id) DO UPDATE
+            SET total_amount = EXCLUDED.total_amount, currency = EXCLUDED.currency, updated_at = NOW()
+            """;
+
+    // Items are addressed through user_id so they always land on the row that owns the user's cart
+    private static final String DELETE_ITEMS_SQL = """
+            DELETE FROM order_payment.cart_items i
+            USING order_payment.carts c
+            WHERE i.cart_id = c.id AND c.user_id = ?
+            """;
+
+    private static final String DELETE_ITEM_SQL = """
+            DELETE FROM order_payment.cart_items i
+            USING order_payment.carts c
+            WHERE i.cart_id = c.id AND c.user_id = ? AND i.product_id = ?
+            """;
+
+    // Values are absolute, so replaying the same change after a failed flush is harmless
+    private static final String UPSERT_ITEM_SQL = """
+            INSERT INTO order_payment.cart_items (id, cart_id, product_id, name, quantity, price, total_price)
+            SELECT ?, c.id, ?, ?, ?, ?, ? FROM order_payment.carts c WHERE c.user_id = ?
+            ON CONFLICT (cart_id, product_id) DO UPDATE
+            SET id = EXCLUDED.id, name = EXCLUDED.name, quantity = EXCLUDED.quantity,
+                price = EXCLUDED.price, total_price = EXCLUDED.total_price
+            """;
+
+    // Checkout drops only the lines it took: anything added since, and the cart total, are left to
+    // the write-behind flush of the in-memory cart
+    private static final String REMOVE_LINES_SQL = """
+            DELETE FROM order_payment.cart_items WHERE cart_id = ? AND id = ANY(?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<CartSnapshot> findByUserId(UUID userId) {
+        List<CartSnapshot> carts = jdbcTemplate.query(FIND_BY_USER_SQL, rs -> {
+            List<CartSnapshot> found = new ArrayList<>(1);
+            CartSnapshot cart = null;
+            BigDecimal total = BigDecimal.ZERO;
+            while (rs.next()) {
+                if (cart == null) {
+                    cart = new CartSnapshot(userId, rs.getObject("cart_id", UUID.class), rs.getString("currency"),
+                            BigDecimal.ZERO, new ArrayList<>());
+                    found.add(cart);
+                }
+                UUID itemId = rs.getObject("item_id", UUID.class);
+                if (itemId != null) {
+                    CartSnapshot.Line line = new CartSnapshot.Line(itemId, rs.getObject("product_id", UUID.class),
+                            rs.getString("name"), rs.getInt("quantity"), rs.getBigDecimal("price"));
+                    cart.getItems().add(line);
+                    total = total.add(line.getPrice().multiply(BigDecimal.valueOf(line.getQuantity())));
+                }
+            }
+            if (cart != null) {
+                cart.setTotalAmount(total);
+            }
+            return found;
+        }, userId);
+        return carts.stream().findFirst();
+    }
+
+    public void removeLines(UUID cartId, List<UUID> itemIds) {
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(REMOVE_LINES_SQL);
+            ps.setObject(1, cartId);
+            ps.setArray(2, con.createArrayOf("uuid", itemIds.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Writes the given changes: cart rows upserted with their totals, lines upserted or deleted
+     * individually, and carts marked for replacement cleared first. Must run inside a transaction.
+     */
+    public void saveChanges(List<CartChanges> carts) {
+        jdbcTemplate.batchUpdate(UPSERT_CART_SQL, carts, carts.size(), (ps, cart) -> {
+            ps.setObject(1, cart.getCartId());
+            ps.setObject(2, cart.getUserId());
+            ps.setBigDecimal(3, cart.getTotalAmount());
+            ps.setString(4, cart.getCurrency());
+        });
+
+        List<Object[]> replaced = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> upserts = new ArrayList<>();
+        for (CartChanges cart : carts) {
+            if (cart.isReplaceItems()) {
+                replaced.add(new Object[]{cart.getUserId()});
+            }
+            for (UUID productId : cart.getRemovedProductIds()) {
+                deletes.add(new Object[]{cart.getUserId(), productId});
+            }
+            for (CartSnapshot.Line line : cart.getUpserts()) {
+                upserts.add(new Object[]{line.getId(), line.getProductId(), line.getName(), line.getQuantity(),
+                        line.getPrice(), line.getPrice().multiply(BigDecimal.valueOf(line.getQuantity())), cart.getUserId()});
+            }
+        }
+        if (!replaced.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_ITEMS_SQL, replaced);
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_ITEM_SQL, deletes);
+        }
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_ITEM_SQL, upserts);
+        }
+    }
+
+    /**
+     * What changed in one cart since it was last written. The cart header always carries the current
+     * total, which the cart store keeps up to date incrementally.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class CartChanges {
+        private final UUID userId;
+        private final UUID cartId;
+        private final String currency;
+        private final BigDecimal totalAmount;
+        private final List<CartSnapshot.Line> upserts;
+        private final List<UUID> removedProductIds;
+        private final boolean replaceItems;
+    }
+}
@@ -0,0 +1,96 @@
+package com.order_payment_service.repository;
+
+import com.order_payment_service.entity.IdempotencyKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC access to {@code order_payment.idempotency_keys}. A key is claimed with a single
+ * insert-on-conflict, so concurrent requests carrying the same key cannot both win, and only the
+ * current claim's token can complete or release it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyJdbcRepository {
+
+    // An expired key is free for any request, and a claim left IN_PROGRESS past its lease belongs to a
+    // request that died, which the same request may take over. Either way the row starts afresh.
+    private static final String CLAIM_SQL = """
+            INSERT INTO order_payment.idempotency_keys (key, request_hash, claim_token, status, locked_at, expires_at)
+            VALUES (?, ?, ?, 'IN_PROGRESS', NOW(), ?)
+            ON CONFLICT (key) DO UPDATE
+            SET request_hash = EXCLUDED.request_hash, claim_token = EXCLUDED.claim_token, status = 'IN_PROGRESS',
+                response_status = NULL, response_body = NULL, locked_at = NOW(), expires_at = EXCLUDED.expires_at
+            WHERE idempotency_keys.expires_at < NOW()
+               OR (idempotency_keys.status = 'IN_PROGRESS'
+                   AND idempotency_keys.locked_at < ?
+                   AND idempotency_keys.request_hash = EXCLUDED.request_hash)
+            """;
+
+    private static final String FIND_SQL = """
+            SELECT key, request_hash, status, response_status, response_body, expires_at
+            FROM order_payment.idempotency_keys
+            WHERE key = ? AND expires_at >= NOW()
+            """;
+
+    private static final String COMPLETE_SQL = """
+            UPDATE order_payment.idempotency_keys
+            SET status = 'COMPLETED', response_status = ?, response_body = ?, locked_at = NULL, claim_token = NULL
+            WHERE key = ? AND claim_token = ? AND status = 'IN_PROGRESS'
+            """;
+
+    private static final String RELEASE_SQL = """
+            DELETE FROM order_payment.idempotency_keys WHERE key = ? AND claim_token = ? AND status = 'IN_PROGRESS'
+            """;
+
+    private static final String PURGE_EXPIRED_SQL = """
+            DELETE FROM order_payment.idempotency_keys
+            WHERE key IN (
+                SELECT key FROM order_payment.idempotency_keys
+                WHERE expires_at < NOW()
+                LIMIT ?
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns {@code true} if this call now owns the key under {@code token}.
+     */
+    public boolean claim(String key, String requestHash, UUID token, Instant expiresAt, Instant staleBefore) {
+        return jdbcTemplate.update(CLAIM_SQL, key, requestHash, token, Timestamp.from(expiresAt),
+                Timestamp.from(staleBefore)) > 0;
+    }
+
+    public Optional<IdempotencyKey> find(String key) {
+        return jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> IdempotencyKey.builder()
+                .key(rs.getString("key"))
+                .requestHash(rs.getString("request_hash"))
+                .status(IdempotencyKey.Status.valueOf(rs.getString("status")))
+                .responseStatus((Integer) rs.getObject("response_status"))
+                .responseBody(rs.getString("response_body"))
+                .expiresAt(rs.getTimestamp("expires_at").toInstant())
+                .build(), key).stream().findFirst();
+    }
+
+    /**
+     * Stores the response; returns {@code false} if the claim under {@code token} was taken over.
+     */
+    public boolean complete(String key, UUID token, int responseStatus, String responseBody) {
+        return jdbcTemplate.update(COMPLETE_SQL, responseStatus, responseBody, key, token) > 0;
+    }
+
+    public void release(String key, UUID token) {
+        jdbcTemplate.update(RELEASE_SQL, key, token);
+    }
+
+    public int purgeExpired(int limit) {
+        return jdbcTemplate.update(PURGE_EXPIRED_SQL, limit);
+    }
+}
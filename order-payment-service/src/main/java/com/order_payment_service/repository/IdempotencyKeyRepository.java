@@ -1,11 +0,0 @@
-package com.order_payment_service.repository;
-
-import com.order_payment_service.entity.IdempotencyKey;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-
-@Repository
-public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
-
-    boolean existsByKey(String key);
-}
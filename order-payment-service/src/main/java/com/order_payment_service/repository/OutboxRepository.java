@@ -0,0 +1,83 @@
+package com.order_payment_service.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JDBC access to {@code order_payment.outbox_events}. Writers append inside their own transaction;
+ * relays claim unsent rows with {@code FOR UPDATE SKIP LOCKED}, so several instances can drain the
+ * table without sending the same row concurrently.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO order_payment.outbox_events (topic, message_key, payload) VALUES (?, ?, ?)
+            """;
+
+    private static final String CLAIM_UNSENT_SQL = """
+            SELECT id, topic, message_key, payload
+            FROM order_payment.outbox_events
+            WHERE sent_at IS NULL
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String MARK_SENT_SQL = """
+            UPDATE order_payment.outbox_events SET sent_at = NOW() WHERE id = ANY(?)
+            """;
+
+    private static final String PURGE_SENT_SQL = """
+            DELETE FROM order_payment.outbox_events
+            WHERE id IN (
+                SELECT id FROM order_payment.outbox_events
+                WHERE sent_at < ?
+                LIMIT ?
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void append(String topic, String key, String payload) {
+        jdbcTemplate.update(INSERT_SQL, topic, key, payload);
+    }
+
+    /**
+     * Locks up to {@code limit} of the oldest unsent rows until the surrounding transaction ends;
+     * rows locked by another relay are skipped rather than waited for.
+     */
+    public List<OutboxEvent> claimUnsent(int limit) {
+        return jdbcTemplate.query(CLAIM_UNSENT_SQL, (rs, rowNum) -> new OutboxEvent(
+                rs.getLong("id"), rs.getString("topic"), rs.getString("message_key"), rs.getString("payload")), limit);
+    }
+
+    public int markSent(List<Long> ids) {
+        return jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(MARK_SENT_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+    }
+
+    public int purgeSentBefore(Instant cutoff, int limit) {
+        return jdbcTemplate.update(PURGE_SENT_SQL, Timestamp.from(cutoff), limit);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class OutboxEvent {
+        private final long id;
+        private final String topic;
+        private final String key;
+        private final String payload;
+    }
+}
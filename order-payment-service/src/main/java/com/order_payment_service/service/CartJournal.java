@@ -0,0 +1,207 @@
+package com.order_payment_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order_payment_service.dto.CartSnapshot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of cart snapshots covering the gap between a change in the cart store and its
+ * write-behind to Postgres. Every change appends the cart's full state as one JSON line, so recovery
+ * is "last line per user wins". The log is split into numbered segments: a flush rolls to a new
+ * segment first and deletes the older ones once everything dirty at that point has been written.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class CartJournal {
+
+    private static final String SEGMENT_PREFIX = "cart-journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${cart.journal.dir:./data/cart-journal}")
+    private String directory;
+
+    // A change is forced to disk before it is acknowledged, so a host crash or power loss loses nothing.
+    // Turning this off leaves only JVM crashes covered, by the page cache
+    @Value("${cart.journal.fsync:true}")
+    private boolean fsync;
+
+    private final List<Path> sealed = new ArrayList<>();
+    private Path dir;
+    private long nextSequence;
+    private Path current;
+    private FileChannel channel;
+    // Entries written so far; guarded by this
+    private long appended;
+
+    // Group commit: the highest entry known to be on disk. An appender waiting here is usually covered
+    // by the force of whoever held the lock before it, so concurrent changes share one disk flush
+    private final Object syncLock = new Object();
+    private long synced;
+
+    @PostConstruct
+    synchronized void open() throws IOException {
+        dir = Files.createDirectories(Path.of(directory));
+        // Segments left by a previous run are kept for recovery and removed by the first flush
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(CartJournal::isSegment)
+                    .sorted(Comparator.comparingLong(CartJournal::sequenceOf))
+                    .forEach(sealed::add);
+        }
+        nextSequence = sealed.isEmpty() ? 0 : sequenceOf(sealed.get(sealed.size() - 1)) + 1;
+        openNextSegment();
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        if (channel != null) {
+            if (fsync) {
+                channel.force(false);
+            }
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Appends the cart's state and returns once it is durable; called while holding the cart's lock so
+     * lines per user stay in order.
+     */
+    void append(CartSnapshot snapshot) {
+        try {
+            long entry = write(objectMapper.writeValueAsBytes(snapshot));
+            if (fsync) {
+                sync(entry);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to cart journal", e);
+        }
+    }
+
+    /**
+     * Starts a new segment and returns every sealed segment, which the caller deletes once the carts
+     * that were dirty at this point have been written.
+     */
+    synchronized List<Path> roll() {
+        try {
+            // Appenders still waiting for a force of this segment are covered here
+            if (fsync) {
+                channel.force(false);
+            }
+            channel.close();
+            sealed.add(current);
+            openNextSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll cart journal", e);
+        }
+        return List.copyOf(sealed);
+    }
+
+    synchronized void delete(List<Path> segments) {
+        for (Path segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+                sealed.remove(segment);
+            } catch (IOException e) {
+                log.warn("Could not delete cart journal segment {}", segment, e);
+            }
+        }
+    }
+
+    /**
+     * Reads the last state of every cart recorded in the sealed segments. A torn final line from a
+     * crash mid-write is skipped.
+     */
+    synchronized List<CartSnapshot> recover() {
+        Map<UUID, CartSnapshot> latest = new LinkedHashMap<>();
+        for (Path segment : sealed) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        CartSnapshot snapshot = objectMapper.readValue(line, CartSnapshot.class);
+                        latest.put(snapshot.getUserId(), snapshot);
+                    } catch (IOException e) {
+                        log.warn("Skipping unreadable cart journal entry in {}", segment);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read cart journal segment " + segment, e);
+            }
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    private synchronized long write(byte[] json) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return ++appended;
+    }
+
+    private void sync(long entry) throws IOException {
+        synchronized (syncLock) {
+            if (synced >= entry) {
+                return;
+            }
+            long upTo;
+            FileChannel target;
+            synchronized (this) {
+                upTo = appended;
+                target = channel;
+            }
+            try {
+                if (target != null) {
+                    target.force(false);
+                }
+            } catch (ClosedChannelException e) {
+                // Rolled (or closed) meanwhile; the segment was forced before its channel was closed
+            }
+            synced = upTo;
+        }
+    }
+
+    private void openNextSegment() throws IOException {
+        current = dir.resolve(SEGMENT_PREFIX + nextSequence++ + SEGMENT_SUFFIX);
+        channel = FileChannel.open(current, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -1,110 +1,177 @@
 package com.order_payment_service.service;
 
+import com.order_payment_service.dto.CartSnapshot;
 import com.order_payment_service.entity.Cart;
 import com.order_payment_service.entity.CartItem;
-import com.order_payment_service.repository.CartRepository;
+import com.order_payment_service.repository.CartJdbcRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.util.Map;
 import java.util.UUID;
-
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Carts are served from the in-process {@link CartStore}. Each change is applied in memory, appended
+ * to the {@link CartJournal} and written to Postgres later by {@link CartWriteBehind}, which coalesces
+ * any number of changes to a cart into one write. Returned {@link Cart}s are detached copies.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CartService {
 
-    private final CartRepository cartRepository;
+    private static final String DEFAULT_CURRENCY = "TRY";
+
+    private final CartStore cartStore;
+    private final CartJournal cartJournal;
+    private final CartJdbcRepository cartJdbcRepository;
 
-    @Transactional
     public Cart getOrCreateCart(UUID userId) {
-        return cartRepository.findByUserId(userId)
-                .orElseGet(() -> {
-                    Cart newCart = Cart.builder()
-                            .userId(userId)
-                            .build();
-                    return cartRepository.save(newCart);
-                });
+        return read(userId);
     }
 
-    @Transactional
     public Cart addToCart(UUID userId, Map<String, Object> itemData) {
-        Cart cart = getOrCreateCart(userId);
-
         UUID productId = UUID.fromString((String) itemData.get("productId"));
         String name = (String) itemData.get("name");
         Integer quantity = (Integer) itemData.get("quantity");
         BigDecimal price = new BigDecimal(itemData.get("price").toString());
 
-        // Check if item already exists in cart
-        CartItem existingItem = cart.getItems().stream()
-                .filter(item -> item.getProductId().equals(productId))
-                .findFirst()
-                .orElse(null);
-
-        if (existingItem != null) {
-            // Update quantity
-            existingItem.setQuantity(existingItem.getQuantity() + quantity);
-        } else {
-            // Add new item
-            CartItem newItem = CartItem.builder()
-                    .productId(productId)
-                    .name(name)
-                    .quantity(quantity)
-                    .price(price)
-                    .build();
-            cart.addItem(newItem);
-        }
-
-        return cartRepository.save(cart);
+        return mutate(userId, cart -> cart.add(productId, name, quantity, price));
     }
 
-    @Transactional(readOnly = true)
     public Cart getCart(UUID userId) {
-        return cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
+        return read(userId);
     }
 
-    @Transactional
     public Cart updateCartItem(UUID userId, UUID itemId, Integer quantity) {
-        Cart cart = getCart(userId);
+        return mutate(userId, cart -> {
+            if (!cart.setQuantity(itemId, quantity)) {
+                throw new RuntimeException("Cart item not found: " + itemId);
+            }
+        });
+    }
 
-        CartItem item = cart.getItems().stream()
-                .filter(cartItem -> cartItem.getId().equals(itemId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Cart item not found: " + itemId));
+    public Cart removeFromCart(UUID userId, UUID itemId) {
+        return mutate(userId, cart -> {
+            if (!cart.remove(itemId)) {
+                throw new RuntimeException("Cart item not found: " + itemId);
+            }
+        });
+    }
 
-        if (quantity <= 0) {
-            cart.removeItem(item);
-        } else {
-            item.setQuantity(quantity);
+    public void clearCart(UUID userId) {
+        mutate(userId, HotCart::clear);
+    }
+
+    /**
+     * Empties the user's cart for checkout and returns what it held. The caller's transaction deletes
+     * the taken rows (see {@link CartJdbcRepository#removeLines}); the journal keeps the full cart
+     * until that transaction commits, and if it rolls back the lines are put back.
+     */
+    public CartSnapshot checkout(UUID userId) {
+        CartSnapshot taken = withCart(userId, cart -> {
+            CartSnapshot snapshot = cart.snapshot();
+            if (snapshot.getItems().isEmpty()) {
+                throw new RuntimeException("Cart is empty");
+            }
+            cart.clear();
+            return snapshot;
+        });
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            journal(userId);
+            return taken;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    journal(userId);
+                } catch (RuntimeException e) {
+                    // The order is committed; the cleared cart still reaches Postgres with the next flush
+                    log.warn("Could not journal checked out cart of user {}", userId, e);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    mutate(userId, cart -> cart.restoreLines(taken.getItems()));
+                }
+            }
+        });
+        return taken;
+    }
 
-        return cartRepository.save(cart);
+    private void journal(UUID userId) {
+        withCart(userId, cart -> {
+            cartJournal.append(cart.snapshot());
+            return null;
+        });
     }
 
-    @Transactional
-    public Cart removeFromCart(UUID userId, UUID itemId) {
-        Cart cart = getCart(userId);
+    private Cart read(UUID userId) {
+        return withCart(userId, cart -> toCart(cart.snapshot()));
+    }
 
-        CartItem item = cart.getItems().stream()
-                .filter(cartItem -> cartItem.getId().equals(itemId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Cart item not found: " + itemId));
+    private Cart mutate(UUID userId, Consumer<HotCart> change) {
+        return withCart(userId, cart -> {
+            HotCart.Checkpoint before = cart.checkpoint();
+            change.accept(cart);
+            CartSnapshot snapshot = cart.snapshot();
+            try {
+                cartJournal.append(snapshot);
+            } catch (RuntimeException e) {
+                // Nothing is acknowledged that the journal does not hold, so the change is undone
+                cart.rollback(before);
+                throw e;
+            }
+            return toCart(snapshot);
+        });
+    }
 
-        cart.removeItem(item);
+    private <T> T withCart(UUID userId, Function<HotCart, T> action) {
+        while (true) {
+            HotCart cart = cartStore.get(userId, this::load);
+            synchronized (cart) {
+                // Evicted between lookup and lock: fetch again so the action never lands on a dropped cart
+                if (!cart.isEvicted()) {
+                    return action.apply(cart);
+                }
+            }
+        }
+    }
 
-        return cartRepository.save(cart);
+    private HotCart load(UUID userId) {
+        return cartJdbcRepository.findByUserId(userId)
+                .map(HotCart::of)
+                // A new cart only reaches Postgres once something is put in it
+                .orElseGet(() -> new HotCart(userId, UUID.randomUUID(), DEFAULT_CURRENCY));
     }
 
-    @Transactional
-    public void clearCart(UUID userId) {
-        Cart cart = getCart(userId);
-        cart.getItems().clear();
-        cart.setTotalAmount(BigDecimal.ZERO);
-        cartRepository.save(cart);
+    private static Cart toCart(CartSnapshot snapshot) {
+        Cart cart = Cart.builder()
+                .id(snapshot.getCartId())
+                .userId(snapshot.getUserId())
+                .currency(snapshot.getCurrency())
+                .totalAmount(snapshot.getTotalAmount())
+                .build();
+        for (CartSnapshot.Line line : snapshot.getItems()) {
+            cart.getItems().add(CartItem.builder()
+                    .id(line.getId())
+                    .productId(line.getProductId())
+                    .name(line.getName())
+                    .quantity(line.getQuantity())
+                    .price(line.getPrice())
+                    .totalPrice(line.getPrice().multiply(BigDecimal.valueOf(line.getQuantity())))
+                    .build());
+        }
+        return cart;
     }
 }
@@ -0,0 +1,129 @@
+package com.order_payment_service.service;
+
+import com.order_payment_service.dto.CartSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cart tier keyed by user id. Only clean carts (everything already written to
+ * Postgres) are ever evicted, so a cart leaves memory only once the database holds its latest state.
+ */
+@Slf4j
+@Component
+class CartStore {
+
+    private final Map<UUID, HotCart> carts = new ConcurrentHashMap<>();
+
+    @Value("${cart.store.max-entries:50000}")
+    private int maxEntries;
+
+    @Value("${cart.store.idle-ttl:30m}")
+    private Duration idleTtl;
+
+    /**
+     * Returns the cached cart, loading it on a miss. The loader runs outside the map lock; if two
+     * threads race, the first cart inserted wins.
+     */
+    HotCart get(UUID userId, Function<UUID, HotCart> loader) {
+        HotCart cart = carts.get(userId);
+        if (cart == null) {
+            HotCart loaded = loader.apply(userId);
+            cart = carts.putIfAbsent(userId, loaded);
+            if (cart == null) {
+                cart = loaded;
+            }
+        }
+        cart.touch();
+        return cart;
+    }
+
+    Optional<HotCart> peek(UUID userId) {
+        return Optional.ofNullable(carts.get(userId));
+    }
+
+    /**
+     * Installs recovered state over whatever is cached, marked dirty so that the next flush writes it.
+     */
+    void restore(CartSnapshot snapshot) {
+        HotCart cart = HotCart.of(snapshot);
+        cart.markForRewrite();
+        HotCart previous = carts.put(snapshot.getUserId(), cart);
+        if (previous != null) {
+            synchronized (previous) {
+                previous.markEvicted();
+            }
+        }
+    }
+
+    List<HotCart> dirtyCarts() {
+        return carts.values().stream().filter(cart -> {
+            synchronized (cart) {
+                return cart.isDirty();
+            }
+        }).toList();
+    }
+
+    /**
+     * Drops clean carts idle longer than the TTL, then the least recently used clean carts until the
+     * store is back under its bound. Dirty carts stay until a flush has written them.
+     */
+    void trim() {
+        long idleBefore = System.currentTimeMillis() - idleTtl.toMillis();
+        int evicted = 0;
+        for (HotCart cart : carts.values()) {
+            if (cart.getLastAccessMillis() < idleBefore && evictIfClean(cart)) {
+                evicted++;
+            }
+        }
+
+        int excess = carts.size() - maxEntries;
+        if (excess > 0) {
+            List<HotCart> oldestFirst = carts.values().stream()
+                    .sorted(Comparator.comparingLong(HotCart::getLastAccessMillis))
+                    .toList();
+            for (HotCart cart : oldestFirst) {
+                if (excess <= 0) {
+                    break;
+                }
+                if (evictIfClean(cart)) {
+                    evicted++;
+                    excess--;
+                }
+            }
+        }
+
+        if (evicted > 0) {
+            log.debug("Evicted {} carts from the cart store, {} remain", evicted, carts.size());
+        }
+    }
+
+    int size() {
+        return carts.size();
+    }
+
+    private boolean evictIfClean(HotCart cart) {
+        synchronized (cart) {
+            if (cart.isDirty()) {
+                return false;
+            }
+            evict(cart);
+            return true;
+        }
+    }
+
+    private void evict(HotCart cart) {
+        // Callers mutating a cart they fetched earlier see the flag and fetch again
+        cart.markEvicted();
+        carts.remove(cart.getUserId(), cart);
+    }
+}
@@ -0,0 +1,138 @@
+package com.order_payment_service.service;
+
+import com.order_payment_service.dto.CartSnapshot;
+import com.order_payment_service.repository.CartJdbcRepository;
+import com.order_payment_service.repository.CartJdbcRepository.CartChanges;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes dirty carts from the cart store to {@code order_payment.carts}/{@code cart_items}. Runs on a
+ * fixed delay, and once at startup to replay the cart journal.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class CartWriteBehind implements SmartInitializingSingleton {
+
+    private final CartStore cartStore;
+    private final CartJournal cartJournal;
+    private final CartJdbcRepository cartJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${cart.write-behind.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Replays the journal before the web server starts taking requests, so no cart is served from
+     * Postgres while the journal still holds newer state for it.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<CartSnapshot> recovered = cartJournal.recover();
+        if (!recovered.isEmpty()) {
+            recovered.forEach(cartStore::restore);
+            log.info("Recovered {} carts from the cart journal", recovered.size());
+        }
+        flush();
+    }
+
+    @Scheduled(fixedDelayString = "${cart.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        // Roll first: every change in the sealed segments is then already visible in the dirty carts below
+        List<Path> segments = cartJournal.roll();
+        List<HotCart> dirty = cartStore.dirtyCarts();
+
+        int failed = 0;
+        for (int from = 0; from < dirty.size(); from += batchSize) {
+            failed += write(dirty.subList(from, Math.min(from + batchSize, dirty.size())));
+        }
+
+        if (failed == 0) {
+            cartJournal.delete(segments);
+        } else {
+            // Kept segments are deleted by the first later flush that writes everything
+            log.warn("{} of {} dirty carts could not be written; keeping {} journal segments",
+                    failed, dirty.size(), segments.size());
+        }
+        if (!dirty.isEmpty()) {
+            log.debug("Flushed {} carts, {} carts in store", dirty.size() - failed, cartStore.size());
+        }
+        cartStore.trim();
+    }
+
+    private int write(List<HotCart> carts) {
+        List<Pending> batch = new ArrayList<>(carts.size());
+        for (HotCart cart : carts) {
+            Pending pending = pending(cart);
+            if (pending != null) {
+                batch.add(pending);
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            save(batch);
+            return 0;
+        } catch (RuntimeException e) {
+            // One bad cart should not hold back the rest: retry one at a time, leaving failures dirty
+            log.warn("Batched cart flush failed, retrying {} carts one by one", batch.size(), e);
+            int failed = 0;
+            for (Pending pending : batch) {
+                try {
+                    save(List.of(pending));
+                } catch (RuntimeException single) {
+                    log.error("Could not write cart for user {}", pending.getChanges().getUserId(), single);
+                    restore(pending);
+                    failed++;
+                }
+            }
+            return failed;
+        }
+    }
+
+    private void save(List<Pending> batch) {
+        transactionTemplate.executeWithoutResult(status ->
+                cartJdbcRepository.saveChanges(batch.stream().map(Pending::getChanges).toList()));
+        batch.forEach(CartWriteBehind::markFlushed);
+    }
+
+    private static Pending pending(HotCart cart) {
+        synchronized (cart) {
+            return cart.isDirty() ? new Pending(cart, cart.drainChanges(), cart.getVersion()) : null;
+        }
+    }
+
+    private static void markFlushed(Pending pending) {
+        synchronized (pending.getCart()) {
+            pending.getCart().markFlushed(pending.getVersion());
+        }
+    }
+
+    private static void restore(Pending pending) {
+        synchronized (pending.getCart()) {
+            pending.getCart().restoreChanges(pending.getChanges());
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Pending {
+        private final HotCart cart;
+        private final CartChanges changes;
+        private final long version;
+    }
+}
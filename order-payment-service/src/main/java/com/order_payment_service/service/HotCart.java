@@ -0,0 +1,254 @@
+package com.order_payment_service.service;
+
+import com.order_payment_service.dto.CartSnapshot;
+import com.order_payment_service.repository.CartJdbcRepository.CartChanges;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A cart held in the in-process cart tier. Callers synchronize on the instance around every read
+ * and mutation; the total is maintained incrementally instead of being re-summed.
+ */
+class HotCart {
+
+    private final UUID userId;
+    private final UUID cartId;
+    private final String currency;
+    // Keyed by product id, insertion ordered like the cart_items rows
+    private final Map<UUID, CartSnapshot.Line> lines = new LinkedHashMap<>();
+    private final Map<UUID, UUID> productIdsByItemId = new HashMap<>();
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    // Products whose line changed since the last flush; a flush upserts the present ones and deletes the rest
+    private final Set<UUID> touchedProducts = new HashSet<>();
+    // Set when the database rows cannot be trusted to match, e.g. after journal recovery
+    private boolean replaceItems;
+
+    // Bumped by every mutation; the cart is dirty while it is ahead of what was last written
+    private long version;
+    private long flushedVersion;
+    private boolean evicted;
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+
+    HotCart(UUID userId, UUID cartId, String currency) {
+        this.userId = userId;
+        this.cartId = cartId;
+        this.currency = currency;
+    }
+
+    static HotCart of(CartSnapshot snapshot) {
+        HotCart cart = new HotCart(snapshot.getUserId(), snapshot.getCartId(), snapshot.getCurrency());
+        for (CartSnapshot.Line line : snapshot.getItems()) {
+            cart.lines.put(line.getProductId(), copy(line));
+            cart.productIdsByItemId.put(line.getId(), line.getProductId());
+            cart.totalAmount = cart.totalAmount.add(lineTotal(line));
+        }
+        return cart;
+    }
+
+    UUID getUserId() {
+        return userId;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    boolean isDirty() {
+        return version != flushedVersion;
+    }
+
+    boolean isEvicted() {
+        return evicted;
+    }
+
+    long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Marks every line for rewriting, including deleting whatever else the database holds for the cart.
+     */
+    void markForRewrite() {
+        touchedProducts.addAll(lines.keySet());
+        replaceItems = true;
+        version++;
+    }
+
+    void markFlushed(long flushed) {
+        flushedVersion = Math.max(flushedVersion, flushed);
+    }
+
+    void markEvicted() {
+        evicted = true;
+    }
+
+    /**
+     * Adds a new line, or raises the quantity of the existing line for the product at its original price.
+     */
+    void add(UUID productId, String name, int quantity, BigDecimal price) {
+        CartSnapshot.Line line = lines.get(productId);
+        if (line == null) {
+            line = new CartSnapshot.Line(UUID.randomUUID(), productId, name, quantity, price);
+            lines.put(productId, line);
+            productIdsByItemId.put(line.getId(), productId);
+        } else {
+            line.setQuantity(line.getQuantity() + quantity);
+        }
+        totalAmount = totalAmount.add(line.getPrice().multiply(BigDecimal.valueOf(quantity)));
+        touch(productId);
+    }
+
+    boolean setQuantity(UUID itemId, int quantity) {
+        CartSnapshot.Line line = findItem(itemId);
+        if (line == null) {
+            return false;
+        }
+        if (quantity <= 0) {
+            return remove(itemId);
+        }
+        totalAmount = totalAmount.add(line.getPrice().multiply(BigDecimal.valueOf(quantity - line.getQuantity())));
+        line.setQuantity(quantity);
+        touch(line.getProductId());
+        return true;
+    }
+
+    boolean remove(UUID itemId) {
+        CartSnapshot.Line line = findItem(itemId);
+        if (line == null) {
+            return false;
+        }
+        lines.remove(line.getProductId());
+        productIdsByItemId.remove(itemId);
+        totalAmount = totalAmount.subtract(lineTotal(line));
+        touch(line.getProductId());
+        return true;
+    }
+
+    /**
+     * Puts back lines taken out by a checkout that did not go through; products added again in the
+     * meantime keep their newer line.
+     */
+    void restoreLines(List<CartSnapshot.Line> taken) {
+        for (CartSnapshot.Line line : taken) {
+            if (!lines.containsKey(line.getProductId())) {
+                lines.put(line.getProductId(), copy(line));
+                productIdsByItemId.put(line.getId(), line.getProductId());
+                totalAmount = totalAmount.add(lineTotal(line));
+                touch(line.getProductId());
+            }
+        }
+    }
+
+    void clear() {
+        touchedProducts.addAll(lines.keySet());
+        lines.clear();
+        productIdsByItemId.clear();
+        totalAmount = BigDecimal.ZERO;
+        version++;
+    }
+
+    /**
+     * Captures the cart, including what the next flush has to write, so that a change whose journal
+     * append fails can be undone with {@link #rollback}.
+     */
+    Checkpoint checkpoint() {
+        List<CartSnapshot.Line> items = new ArrayList<>(lines.size());
+        lines.values().forEach(line -> items.add(copy(line)));
+        return new Checkpoint(items, totalAmount, new HashSet<>(touchedProducts), replaceItems, version);
+    }
+
+    void rollback(Checkpoint checkpoint) {
+        lines.clear();
+        productIdsByItemId.clear();
+        for (CartSnapshot.Line line : checkpoint.items) {
+            lines.put(line.getProductId(), copy(line));
+            productIdsByItemId.put(line.getId(), line.getProductId());
+        }
+        totalAmount = checkpoint.totalAmount;
+        touchedProducts.clear();
+        touchedProducts.addAll(checkpoint.touchedProducts);
+        replaceItems = checkpoint.replaceItems;
+        version = checkpoint.version;
+    }
+
+    CartSnapshot snapshot() {
+        List<CartSnapshot.Line> items = new ArrayList<>(lines.size());
+        lines.values().forEach(line -> items.add(copy(line)));
+        return new CartSnapshot(userId, cartId, currency, totalAmount, items);
+    }
+
+    /**
+     * Takes the changes made since the last flush: current values of touched lines plus the products
+     * whose lines are gone. Handed back through {@link #restoreChanges} if the write fails.
+     */
+    CartChanges drainChanges() {
+        List<CartSnapshot.Line> upserts = new ArrayList<>();
+        List<UUID> removed = new ArrayList<>();
+        for (UUID productId : touchedProducts) {
+            CartSnapshot.Line line = lines.get(productId);
+            if (line != null) {
+                upserts.add(copy(line));
+            } else {
+                removed.add(productId);
+            }
+        }
+        CartChanges changes = new CartChanges(userId, cartId, currency, totalAmount, upserts, removed, replaceItems);
+        touchedProducts.clear();
+        replaceItems = false;
+        return changes;
+    }
+
+    void restoreChanges(CartChanges changes) {
+        changes.getUpserts().forEach(line -> touchedProducts.add(line.getProductId()));
+        touchedProducts.addAll(changes.getRemovedProductIds());
+        replaceItems |= changes.isReplaceItems();
+    }
+
+    static final class Checkpoint {
+        private final List<CartSnapshot.Line> items;
+        private final BigDecimal totalAmount;
+        private final Set<UUID> touchedProducts;
+        private final boolean replaceItems;
+        private final long version;
+
+        private Checkpoint(List<CartSnapshot.Line> items, BigDecimal totalAmount, Set<UUID> touchedProducts,
+                           boolean replaceItems, long version) {
+            this.items = items;
+            this.totalAmount = totalAmount;
+            this.touchedProducts = touchedProducts;
+            this.replaceItems = replaceItems;
+            this.version = version;
+        }
+    }
+
+    private void touch(UUID productId) {
+        touchedProducts.add(productId);
+        version++;
+    }
+
+    private CartSnapshot.Line findItem(UUID itemId) {
+        UUID productId = productIdsByItemId.get(itemId);
+        return productId == null ? null : lines.get(productId);
+    }
+
+    private static BigDecimal lineTotal(CartSnapshot.Line line) {
+        return line.getPrice().multiply(BigDecimal.valueOf(line.getQuantity()));
+    }
+
+    private static CartSnapshot.Line copy(CartSnapshot.Line line) {
+        return new CartSnapshot.Line(line.getId(), line.getProductId(), line.getName(), line.getQuantity(), line.getPrice());
+    }
+}
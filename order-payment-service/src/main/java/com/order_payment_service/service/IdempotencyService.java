@@ -0,0 +1,187 @@
+package com.order_payment_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order_payment_service.entity.IdempotencyKey;
+import com.order_payment_service.repository.IdempotencyKeyJdbcRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Makes a request safe to retry under an {@code Idempotency-Key}. The first request claims the key
+ * atomically; its response is stored in the same transaction as its work and replayed to every retry.
+ * Completed keys are also kept in a bounded in-memory cache so hot retries skip Postgres. Keys are
+ * bound to the user who claimed them: another user presenting the same key never gets its response.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    private final IdempotencyKeyJdbcRepository idempotencyKeyJdbcRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${idempotency.ttl:24h}")
+    private Duration ttl;
+
+    // A claim older than this may be taken over; the work's transaction times out well before it
+    @Value("${idempotency.lease:2m}")
+    private Duration lease;
+
+    @Value("${idempotency.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    @Value("${idempotency.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    // Access ordered, so the least recently replayed key is dropped first
+    private final Map<String, CachedResponse> completed = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                    return size() > cacheMaxEntries;
+                }
+            });
+
+    public Claim claim(String key, UUID userId, String requestHash) {
+        requestHash = bind(userId, requestHash);
+        CachedResponse cached = completed.get(key);
+        if (cached != null) {
+            if (cached.getExpiresAt().isAfter(Instant.now())) {
+                return replayOrMismatch(cached.getRequestHash(), requestHash, cached.getResponse());
+            }
+            completed.remove(key);
+        }
+
+        Instant now = Instant.now();
+        UUID token = UUID.randomUUID();
+        if (idempotencyKeyJdbcRepository.claim(key, requestHash, token, now.plus(ttl), now.minus(lease))) {
+            return new Claim(Outcome.CLAIMED, null, token);
+        }
+
+        Optional<IdempotencyKey> existing = idempotencyKeyJdbcRepository.find(key);
+        if (existing.isEmpty()) {
+            // Released between our insert and read; the client can simply retry
+            return new Claim(Outcome.CONFLICT, null, null);
+        }
+        IdempotencyKey stored = existing.get();
+        if (stored.getStatus() != IdempotencyKey.Status.COMPLETED || stored.getResponseBody() == null) {
+            return new Claim(Outcome.CONFLICT, null, null);
+        }
+        StoredResponse response = new StoredResponse(stored.getResponseStatus(), stored.getResponseBody());
+        completed.put(key, new CachedResponse(stored.getRequestHash(), response, stored.getExpiresAt()));
+        return replayOrMismatch(stored.getRequestHash(), requestHash, response);
+    }
+
+    /**
+     * Runs the work for a claimed key and stores its response in the same transaction. If the work
+     * fails the claim is released so the client can retry with the same key. If the claim was taken
+     * over meanwhile, the response is not stored and the work is rolled back.
+     */
+    public StoredResponse execute(String key, UUID token, UUID userId, String requestHash, int status,
+                                  Supplier<Object> work) {
+        requestHash = bind(userId, requestHash);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // Bounded below the lease, so the work cannot still commit once a retry may take the key over
+        transaction.setTimeout((int) Math.max(1, lease.dividedBy(2).toSeconds()));
+        StoredResponse response;
+        try {
+            response = transaction.execute(tx -> {
+                StoredResponse result = new StoredResponse(status, serialize(work.get()));
+                if (!idempotencyKeyJdbcRepository.complete(key, token, result.getStatus(), result.getBody())) {
+                    throw new IllegalStateException("Idempotency key " + key + " was taken over by another request");
+                }
+                return result;
+            });
+        } catch (RuntimeException e) {
+            idempotencyKeyJdbcRepository.release(key, token);
+            throw e;
+        }
+        completed.put(key, new CachedResponse(requestHash, response, Instant.now().plus(ttl)));
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = idempotencyKeyJdbcRepository.purgeExpired(purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        if (total > 0) {
+            log.info("Purged {} expired idempotency keys", total);
+        }
+    }
+
+    // The stored hash covers the caller too, so a key reused by another user is a mismatch, never a replay
+    private static String bind(UUID userId, String requestHash) {
+        return userId + ":" + requestHash;
+    }
+
+    private static Claim replayOrMismatch(String storedHash, String requestHash, StoredResponse response) {
+        return storedHash.equals(requestHash)
+                ? new Claim(Outcome.REPLAY, response, null)
+                : new Claim(Outcome.MISMATCH, null, null);
+    }
+
+    private String serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response for idempotency key", e);
+        }
+    }
+
+    public enum Outcome {
+        /** This request owns the key and should do the work. */
+        CLAIMED,
+        /** The key completed earlier for the same request; send the stored response. */
+        REPLAY,
+        /** The key is held by a request still in flight, or predates stored responses. */
+        CONFLICT,
+        /** The key was used for a different request body or by a different user. */
+        MISMATCH
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Claim {
+        private final Outcome outcome;
+        private final StoredResponse response;
+        // Set when CLAIMED; completing or releasing the key requires it
+        private final UUID token;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class StoredResponse {
+        private final int status;
+        private final String body;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class CachedResponse {
+        private final String requestHash;
+        private final StoredResponse response;
+        private final Instant expiresAt;
+    }
+}
@@ -3,18 +3,22 @@ package com.order_payment_service.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.order_payment_service.dto.PaymentSucceededEvent;
+import com.order_payment_service.repository.OutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+/**
+ * Queues outgoing events in the outbox; {@link OutboxRelay} publishes them once the caller's
+ * transaction has committed, so a rolled back payment never produces an event.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class KafkaProducerService {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final OutboxRepository outboxRepository;
     private final ObjectMapper objectMapper;
 
     @Value("${kafka.topics.payment-succeeded}")
@@ -23,8 +27,8 @@ public class KafkaProducerService {
     public void sendPaymentSucceededEvent(PaymentSucceededEvent event) {
         try {
             String message = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send(paymentSucceededTopic, event.getOrderId().toString(), message);
-            log.info("Payment succeeded event sent to Kafka: {}", message);
+            outboxRepository.append(paymentSucceededTopic, event.getOrderId().toString(), message);
+            log.info("Payment succeeded event queued: {}", message);
         } catch (JsonProcessingException e) {
             log.error("Failed to serialize payment succeeded event", e);
             throw new RuntimeException("Failed to send payment succeeded event", e);
@@ -2,14 +2,16 @@ package com.order_payment_service.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order_payment_service.dto.CartSnapshot;
 import com.order_payment_service.dto.OrderCreatedEvent;
 import com.order_payment_service.entity.*;
-import com.order_payment_service.repository.CartRepository;
+import com.order_payment_service.repository.CartJdbcRepository;
+import com.order_payment_service.repository.OrderItemRepository;
 import com.order_payment_service.repository.OrderRepository;
+import com.order_payment_service.repository.OutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,61 +30,55 @@ import java.util.stream.Collectors;
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final CartRepository cartRepository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final OrderItemRepository orderItemRepository;
+    private final CartJdbcRepository cartJdbcRepository;
+    private final CartService cartService;
+    private final OutboxRepository outboxRepository;
     private final ObjectMapper objectMapper;
 
     @Value("${kafka.topics.order-created:order_created}")
     private String orderCreatedTopic;
 
+    /**
+     * Turns the user's cart into an order in a handful of statements: the order row, its items as one
+     * JDBC batch, one statement clearing the cart and one outbox row for the order created event.
+     */
     @Transactional
     public Order createOrder(UUID userId, Map<String, Object> orderData) {
         log.info("Creating order for user: {}", userId);
 
-        // Get user's cart
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
+        // Taken from the cart store; put back if this transaction rolls back
+        CartSnapshot cart = cartService.checkout(userId);
 
-        if (cart.getItems().isEmpty()) {
-            throw new RuntimeException("Cart is empty");
-        }
-
-        // Create order
-        Order order = Order.builder()
+        Order order = orderRepository.save(Order.builder()
                 .userId(userId)
                 .totalAmount(cart.getTotalAmount())
                 .currency(cart.getCurrency())
                 .status(Order.OrderStatus.PENDING)
                 .shippingAddress((String) orderData.get("shippingAddress"))
                 .billingAddress((String) orderData.get("billingAddress"))
-                .build();
+                .build());
 
-        // Convert cart items to order items
         List<OrderItem> orderItems = cart.getItems().stream()
-                .map(cartItem -> OrderItem.builder()
-                        .productId(cartItem.getProductId())
-                        .name(cartItem.getName())
-                        .quantity(cartItem.getQuantity())
-                        .price(cartItem.getPrice())
-                        .totalPrice(cartItem.getTotalPrice())
+                .map(line -> OrderItem.builder()
+                        .order(order)
+                        .productId(line.getProductId())
+                        .name(line.getName())
+                        .quantity(line.getQuantity())
+                        .price(line.getPrice())
+                        .totalPrice(line.getPrice().multiply(BigDecimal.valueOf(line.getQuantity())))
                         .build())
                 .collect(Collectors.toList());
+        // Inserted at flush as batched statements (hibernate.jdbc.batch_size, order_inserts)
+        orderItemRepository.saveAll(orderItems);
 
-        Order finalOrder = order;
-        orderItems.forEach(item -> item.setOrder(finalOrder));
-
-        Order savedOrder = orderRepository.save(finalOrder);
-
-        // Clear cart
-        cart.getItems().clear();
-        cart.setTotalAmount(BigDecimal.ZERO);
-        cartRepository.save(cart);
+        cartJdbcRepository.removeLines(cart.getCartId(),
+                cart.getItems().stream().map(CartSnapshot.Line::getId).toList());
 
-        // Publish order created event
-        publishOrderCreatedEvent(savedOrder, orderItems);
+        publishOrderCreatedEvent(order, orderItems);
 
-        log.info("Order created successfully: {}", savedOrder.getId());
-        return savedOrder;
+        log.info("Order created successfully: {}", order.getId());
+        return order;
     }
 
     @Transactional(readOnly = true)
@@ -177,9 +173,10 @@ public class OrderService {
                 .build();
 
         try {
+            // Commits or rolls back with the order; OutboxRelay publishes it afterwards
             String message = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send(orderCreatedTopic, order.getId().toString(), message);
-            log.info("Order created event published: {}", message);
+            outboxRepository.append(orderCreatedTopic, order.getId().toString(), message);
+            log.info("Order created event queued: {}", message);
         } catch (JsonProcessingException e) {
             log.error("Failed to serialize order created event", e);
         }
@@ -0,0 +1,117 @@
+package com.order_payment_service.service;
+
+import com.order_payment_service.repository.OutboxRepository;
+import com.order_payment_service.repository.OutboxRepository.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes outbox rows to Kafka off the request path. Each round claims a batch with
+ * {@code SKIP LOCKED}, hands the whole batch to the producer at once so it can fill compressed
+ * record batches, waits for the acks and marks the acknowledged rows sent in one statement.
+ * Delivery is at least once: a row is only marked after the broker has acknowledged it. Ordering is
+ * best effort per relay instance only, since concurrent relays claim disjoint batches.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-batches-per-poll:20}")
+    private int maxBatchesPerPoll;
+
+    @Value("${outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${outbox.relay.retention:1d}")
+    private Duration retention;
+
+    @Value("${outbox.relay.purge-batch-size:5000}")
+    private int purgeBatchSize;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:200}")
+    public void relay() {
+        // Keep draining while batches come back full, bounded so one backlog cannot pin the scheduler thread
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            Integer claimed = transactionTemplate.execute(status -> relayBatch());
+            if (claimed == null || claimed < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs inside a transaction so the claimed rows stay locked while their sends are in flight.
+     */
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxRepository.claimUnsent(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            sends.add(kafkaTemplate.send(event.getTopic(), event.getKey(), event.getPayload()));
+        }
+        kafkaTemplate.flush();
+
+        // Only the acknowledged prefix is marked: a failed event and everything after it are sent again
+        // next round. This keeps this instance's batch in order; other instances skip the locked rows
+        // and may publish later events first, so consumers must not rely on cross-event ordering
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<Long> sent = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sent.add(event.getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("Could not publish outbox event {} to {}, retrying on next poll", event.getId(), event.getTopic(), e);
+                break;
+            }
+        }
+
+        if (!sent.isEmpty()) {
+            outboxRepository.markSent(sent);
+            log.debug("Published {} of {} claimed outbox events", sent.size(), events.size());
+        }
+        return sent.size() == events.size() ? events.size() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.purge-interval-ms:600000}")
+    public void purgeSent() {
+        Instant cutoff = Instant.now().minus(retention);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = outboxRepository.purgeSentBefore(cutoff, purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        if (total > 0) {
+            log.info("Purged {} sent outbox events older than {}", total, retention);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+-- One cart line per product so cart writes can upsert on (cart_id, product_id)
+
+-- Fold any duplicate lines into the oldest one before the unique index goes on
+WITH ranked AS (
+    SELECT id,
+           ROW_NUMBER() OVER (PARTITION BY cart_id, product_id ORDER BY created_at, id) AS rn,
+           SUM(quantity) OVER (PARTITION BY cart_id, product_id) AS total_quantity
+    FROM order_payment.cart_items
+)
+UPDATE order_payment.cart_items i
+SET quantity = r.total_quantity, total_price = i.price * r.total_quantity
+FROM ranked r
+WHERE i.id = r.id AND r.rn = 1 AND r.total_quantity <> i.quantity;
+
+DELETE FROM order_payment.cart_items i
+USING (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY cart_id, product_id ORDER BY created_at, id) AS rn
+    FROM order_payment.cart_items
+) r
+WHERE i.id = r.id AND r.rn > 1;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_cart_items_cart_product ON order_payment.cart_items(cart_id, product_id);
+
+-- cart_id lookups are served by the leading column of the unique index
+DROP INDEX IF EXISTS order_payment.idx_cart_items_cart_id;
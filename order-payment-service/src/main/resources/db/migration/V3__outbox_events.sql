@@ -0,0 +1,12 @@
+-- Events written in the same transaction as the change they describe, published to Kafka by the outbox relay
+CREATE TABLE IF NOT EXISTS order_payment.outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255),
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    sent_at TIMESTAMP
+);
+
+-- The relay only ever looks at unsent rows, oldest first
+CREATE INDEX IF NOT EXISTS idx_outbox_events_unsent ON order_payment.outbox_events(id) WHERE sent_at IS NULL;
@@ -0,0 +1,2 @@
+-- Supports purging sent outbox rows past their retention
+CREATE INDEX IF NOT EXISTS idx_outbox_events_sent_at ON order_payment.outbox_events(sent_at) WHERE sent_at IS NOT NULL;
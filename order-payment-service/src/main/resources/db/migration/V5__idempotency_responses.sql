@@ -0,0 +1,20 @@
+-- Idempotency keys move from "seen" markers to a claim with a stored response that retries replay
+
+ALTER TABLE order_payment.idempotency_keys
+    ADD COLUMN IF NOT EXISTS status VARCHAR(20),
+    ADD COLUMN IF NOT EXISTS response_status INTEGER,
+    ADD COLUMN IF NOT EXISTS response_body TEXT,
+    ADD COLUMN IF NOT EXISTS locked_at TIMESTAMP,
+    ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP;
+
+-- Existing keys have no stored response; they stay completed until they expire
+UPDATE order_payment.idempotency_keys
+SET status = 'COMPLETED', expires_at = created_at + INTERVAL '24 hours'
+WHERE status IS NULL;
+
+ALTER TABLE order_payment.idempotency_keys
+    ALTER COLUMN status SET NOT NULL,
+    ALTER COLUMN expires_at SET NOT NULL,
+    ADD CONSTRAINT chk_idempotency_keys_status CHECK (status IN ('IN_PROGRESS', 'COMPLETED'));
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON order_payment.idempotency_keys(expires_at);
@@ -0,0 +1,3 @@
+-- Each claim carries its own token; completing or releasing a key requires the token of the current
+-- claim, so a request whose stale claim was taken over can no longer commit or drop the key
+ALTER TABLE order_payment.idempotency_keys ADD COLUMN IF NOT EXISTS claim_token UUID;
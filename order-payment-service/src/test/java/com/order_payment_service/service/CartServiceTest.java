@@ -0,0 +1,206 @@
+package com.order_payment_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order_payment_service.dto.CartSnapshot;
+import com.order_payment_service.entity.Cart;
+import com.order_payment_service.repository.CartJdbcRepository;
+import com.order_payment_service.repository.CartJdbcRepository.CartChanges;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CartServiceTest {
+
+    @Mock
+    private CartJournal cartJournal;
+
+    @Mock
+    private CartJdbcRepository cartJdbcRepository;
+
+    private CartStore cartStore;
+    private CartService cartService;
+
+    @BeforeEach
+    void setUp() {
+        cartStore = new CartStore();
+        ReflectionTestUtils.setField(cartStore, "maxEntries", 100);
+        cartService = new CartService(cartStore, cartJournal, cartJdbcRepository);
+    }
+
+    @Test
+    void shouldMergeRepeatedAddsInMemoryAndJournalEachChange() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        String productId = UUID.randomUUID().toString();
+        when(cartJdbcRepository.findByUserId(userId)).thenReturn(Optional.empty());
+
+        // When
+        cartService.addToCart(userId, item(productId, 2, "10.50"));
+        Cart cart = cartService.addToCart(userId, item(productId, 1, "10.50"));
+
+        // Then
+        assertThat(cart.getItems()).hasSize(1);
+        assertThat(cart.getItems().get(0).getQuantity()).isEqualTo(3);
+        assertThat(cart.getTotalAmount()).isEqualByComparingTo("31.50");
+        verify(cartJdbcRepository, times(1)).findByUserId(userId);
+        verify(cartJournal, times(2)).append(any(CartSnapshot.class));
+    }
+
+    @Test
+    void shouldFlushOnlyLinesChangedSinceLastWrite() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        String kept = UUID.randomUUID().toString();
+        String removed = UUID.randomUUID().toString();
+        when(cartJdbcRepository.findByUserId(userId)).thenReturn(Optional.empty());
+        cartService.addToCart(userId, item(kept, 1, "20.00"));
+        Cart cart = cartService.addToCart(userId, item(removed, 2, "5.00"));
+        UUID removedItemId = cart.getItems().get(1).getId();
+
+        // When
+        cartService.removeFromCart(userId, removedItemId);
+        CartChanges changes = cartStore.peek(userId).orElseThrow().drainChanges();
+
+        // Then
+        assertThat(changes.getUpserts()).extracting(CartSnapshot.Line::getProductId).containsExactly(UUID.fromString(kept));
+        assertThat(changes.getRemovedProductIds()).containsExactly(UUID.fromString(removed));
+        assertThat(changes.getTotalAmount()).isEqualByComparingTo("20.00");
+        assertThat(changes.isReplaceItems()).isFalse();
+    }
+
+    @Test
+    void shouldUndoChangeWhenJournalAppendFails() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        String productId = UUID.randomUUID().toString();
+        when(cartJdbcRepository.findByUserId(userId)).thenReturn(Optional.empty());
+        cartService.addToCart(userId, item(productId, 1, "10.00"));
+        cartStore.peek(userId).orElseThrow().drainChanges();
+        doThrow(new UncheckedIOException(new IOException("disk full"))).when(cartJournal).append(any(CartSnapshot.class));
+
+        // When
+        assertThatThrownBy(() -> cartService.addToCart(userId, item(productId, 2, "10.00")))
+                .isInstanceOf(UncheckedIOException.class);
+
+        // Then
+        Cart cart = cartService.getCart(userId);
+        assertThat(cart.getItems()).singleElement().satisfies(i -> assertThat(i.getQuantity()).isEqualTo(1));
+        assertThat(cart.getTotalAmount()).isEqualByComparingTo("10.00");
+        assertThat(cartStore.peek(userId).orElseThrow().drainChanges().getUpserts()).isEmpty();
+    }
+
+    @Test
+    void shouldJournalCheckedOutCartOnlyAfterCommit() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        when(cartJdbcRepository.findByUserId(userId)).thenReturn(Optional.empty());
+        cartService.addToCart(userId, item(UUID.randomUUID().toString(), 1, "10.00"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            CartSnapshot taken = cartService.checkout(userId);
+
+            // Then
+            assertThat(taken.getItems()).hasSize(1);
+            verify(cartJournal, times(1)).append(any(CartSnapshot.class));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            ArgumentCaptor<CartSnapshot> journaled = ArgumentCaptor.forClass(CartSnapshot.class);
+            verify(cartJournal, times(2)).append(journaled.capture());
+            assertThat(journaled.getValue().getItems()).isEmpty();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldRecoverLatestCartStatePerUserFromJournal(@TempDir Path dir) throws Exception {
+        // Given
+        CartJournal journal = journalIn(dir);
+        UUID userId = UUID.randomUUID();
+        UUID cartId = UUID.randomUUID();
+        CartSnapshot.Line line = new CartSnapshot.Line(UUID.randomUUID(), UUID.randomUUID(), "Kulaklik", 1, new BigDecimal("499.00"));
+        journal.append(new CartSnapshot(userId, cartId, "TRY", new BigDecimal("499.00"), List.of(line)));
+        line.setQuantity(2);
+        journal.append(new CartSnapshot(userId, cartId, "TRY", new BigDecimal("998.00"), List.of(line)));
+        journal.close();
+
+        // When
+        List<CartSnapshot> recovered = journalIn(dir).recover();
+
+        // Then
+        assertThat(recovered).hasSize(1);
+        assertThat(recovered.get(0).getItems().get(0).getQuantity()).isEqualTo(2);
+        assertThat(recovered.get(0).getTotalAmount()).isEqualByComparingTo("998.00");
+    }
+
+    @Test
+    void shouldKeepEveryConcurrentAppendWithGroupCommit(@TempDir Path dir) throws Exception {
+        // Given
+        CartJournal journal = journalIn(dir);
+        ReflectionTestUtils.setField(journal, "fsync", true);
+        List<UUID> users = IntStream.range(0, 8).mapToObj(i -> UUID.randomUUID()).toList();
+        ExecutorService pool = Executors.newFixedThreadPool(users.size());
+
+        // When: every user appends 50 states while the journal rolls underneath
+        List<Future<?>> appenders = users.stream().map(userId -> pool.submit(() -> {
+            for (int quantity = 1; quantity <= 50; quantity++) {
+                CartSnapshot.Line line = new CartSnapshot.Line(UUID.randomUUID(), UUID.randomUUID(), "Kalem", quantity, BigDecimal.ONE);
+                journal.append(new CartSnapshot(userId, userId, "TRY", BigDecimal.valueOf(quantity), List.of(line)));
+            }
+        })).collect(Collectors.toList());
+        journal.roll();
+        for (Future<?> appender : appenders) {
+            appender.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        journal.close();
+
+        // Then
+        List<CartSnapshot> recovered = journalIn(dir).recover();
+        assertThat(recovered).extracting(CartSnapshot::getUserId).containsExactlyInAnyOrderElementsOf(users);
+        assertThat(recovered).allSatisfy(cart -> assertThat(cart.getItems().get(0).getQuantity()).isEqualTo(50));
+    }
+
+    private static CartJournal journalIn(Path dir) throws Exception {
+        CartJournal journal = new CartJournal(new ObjectMapper());
+        ReflectionTestUtils.setField(journal, "directory", dir.toString());
+        journal.open();
+        return journal;
+    }
+
+    private static Map<String, Object> item(String productId, int quantity, String price) {
+        return Map.of("productId", productId, "name", "Kulaklik", "quantity", quantity, "price", price);
+    }
+}
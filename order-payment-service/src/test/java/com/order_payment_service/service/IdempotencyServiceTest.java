@@ -0,0 +1,181 @@
+package com.order_payment_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order_payment_service.entity.IdempotencyKey;
+import com.order_payment_service.repository.IdempotencyKeyJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final UUID USER = UUID.randomUUID();
+    private static final UUID TOKEN = UUID.randomUUID();
+
+    @Mock
+    private IdempotencyKeyJdbcRepository idempotencyKeyJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyKeyJdbcRepository, transactionManager, new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyService, "ttl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(idempotencyService, "lease", Duration.ofMinutes(2));
+        ReflectionTestUtils.setField(idempotencyService, "cacheMaxEntries", 100);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(idempotencyKeyJdbcRepository.complete(anyString(), any(), anyInt(), anyString())).thenReturn(true);
+    }
+
+    @Test
+    void shouldReplayStoredResponseFromCacheWithoutTouchingDatabase() {
+        // Given
+        when(idempotencyKeyJdbcRepository.claim(eq("key-1"), eq(USER + ":hash"), any(), any(), any())).thenReturn(true);
+        assertThat(idempotencyService.claim("key-1", USER, "hash").getOutcome()).isEqualTo(IdempotencyService.Outcome.CLAIMED);
+        idempotencyService.execute("key-1", TOKEN, USER, "hash", 201, () -> Map.of("orderId", "o-1"));
+
+        // When
+        IdempotencyService.Claim retry = idempotencyService.claim("key-1", USER, "hash");
+
+        // Then
+        assertThat(retry.getOutcome()).isEqualTo(IdempotencyService.Outcome.REPLAY);
+        assertThat(retry.getResponse().getStatus()).isEqualTo(201);
+        assertThat(retry.getResponse().getBody()).isEqualTo("{\"orderId\":\"o-1\"}");
+        verify(idempotencyKeyJdbcRepository).complete("key-1", TOKEN, 201, "{\"orderId\":\"o-1\"}");
+        verify(idempotencyKeyJdbcRepository, times(1)).claim(anyString(), anyString(), any(), any(), any());
+        verify(idempotencyKeyJdbcRepository, never()).find(anyString());
+    }
+
+    @Test
+    void shouldRejectKeyReusedForDifferentRequest() {
+        // Given
+        when(idempotencyKeyJdbcRepository.claim(eq("key-2"), eq(USER + ":other"), any(), any(), any())).thenReturn(false);
+        when(idempotencyKeyJdbcRepository.find("key-2")).thenReturn(Optional.of(IdempotencyKey.builder()
+                .key("key-2")
+                .requestHash(USER + ":hash")
+                .status(IdempotencyKey.Status.COMPLETED)
+                .responseStatus(201)
+                .responseBody("{}")
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build()));
+
+        // When
+        IdempotencyService.Claim claim = idempotencyService.claim("key-2", USER, "other");
+
+        // Then
+        assertThat(claim.getOutcome()).isEqualTo(IdempotencyService.Outcome.MISMATCH);
+    }
+
+    @Test
+    void shouldClaimAgainInDatabaseOnceCachedResponseExpires() {
+        // Given: a zero ttl leaves the cached response expired as soon as it is stored
+        ReflectionTestUtils.setField(idempotencyService, "ttl", Duration.ZERO);
+        idempotencyService.execute("key-4", TOKEN, USER, "hash", 201, () -> Map.of("orderId", "o-4"));
+        ReflectionTestUtils.setField(idempotencyService, "ttl", Duration.ofHours(24));
+        when(idempotencyKeyJdbcRepository.claim(eq("key-4"), eq(USER + ":other"), any(), any(), any())).thenReturn(true);
+
+        // When
+        IdempotencyService.Claim claim = idempotencyService.claim("key-4", USER, "other");
+
+        // Then: the expired row is taken over with a fresh expiry instead of being replayed
+        assertThat(claim.getOutcome()).isEqualTo(IdempotencyService.Outcome.CLAIMED);
+        ArgumentCaptor<Instant> expiresAt = ArgumentCaptor.forClass(Instant.class);
+        verify(idempotencyKeyJdbcRepository).claim(eq("key-4"), eq(USER + ":other"), any(), expiresAt.capture(), any());
+        assertThat(expiresAt.getValue()).isAfter(Instant.now().plus(Duration.ofHours(23)));
+    }
+
+    @Test
+    void shouldTakeOverStaleClaimWithFreshExpiry() {
+        // Given
+        when(idempotencyKeyJdbcRepository.claim(eq("key-5"), eq(USER + ":hash"), any(), any(), any())).thenReturn(true);
+        Instant before = Instant.now();
+
+        // When
+        IdempotencyService.Claim claim = idempotencyService.claim("key-5", USER, "hash");
+
+        // Then: claims older than the lease are stale, and the taken-over row gets a full ttl again
+        assertThat(claim.getOutcome()).isEqualTo(IdempotencyService.Outcome.CLAIMED);
+        ArgumentCaptor<Instant> expiresAt = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> staleBefore = ArgumentCaptor.forClass(Instant.class);
+        verify(idempotencyKeyJdbcRepository).claim(eq("key-5"), eq(USER + ":hash"), any(), expiresAt.capture(), staleBefore.capture());
+        assertThat(staleBefore.getValue()).isBetween(before.minus(Duration.ofMinutes(2)), Instant.now().minus(Duration.ofMinutes(2)));
+        assertThat(expiresAt.getValue()).isBetween(before.plus(Duration.ofHours(24)), Instant.now().plus(Duration.ofHours(24)));
+    }
+
+    @Test
+    void shouldNotReplayAnotherUsersResponse() {
+        // Given
+        when(idempotencyKeyJdbcRepository.claim(eq("key-6"), eq(USER + ":hash"), any(), any(), any())).thenReturn(true);
+        idempotencyService.claim("key-6", USER, "hash");
+        idempotencyService.execute("key-6", TOKEN, USER, "hash", 201, () -> Map.of("orderId", "o-6"));
+
+        // When: same key and body from someone else
+        IdempotencyService.Claim claim = idempotencyService.claim("key-6", UUID.randomUUID(), "hash");
+
+        // Then
+        assertThat(claim.getOutcome()).isEqualTo(IdempotencyService.Outcome.MISMATCH);
+        assertThat(claim.getResponse()).isNull();
+    }
+
+    @Test
+    void shouldRollBackWorkWhenClaimWasTakenOver() {
+        // Given: a retry took the key over after the lease, so this claim's token no longer matches
+        when(idempotencyKeyJdbcRepository.complete(eq("key-7"), eq(TOKEN), anyInt(), anyString())).thenReturn(false);
+
+        // When / Then
+        assertThatThrownBy(() -> idempotencyService.execute("key-7", TOKEN, USER, "hash", 201,
+                () -> Map.of("orderId", "o-7"))).isInstanceOf(IllegalStateException.class);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(idempotencyKeyJdbcRepository).release("key-7", TOKEN);
+    }
+
+    @Test
+    void shouldBoundWorkTransactionBelowLease() {
+        // When
+        idempotencyService.execute("key-8", TOKEN, USER, "hash", 201, () -> Map.of("orderId", "o-8"));
+
+        // Then
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().getTimeout()).isPositive().isLessThan((int) Duration.ofMinutes(2).toSeconds());
+    }
+
+    @Test
+    void shouldReleaseClaimWhenWorkFails() {
+        // When / Then
+        assertThatThrownBy(() -> idempotencyService.execute("key-3", TOKEN, USER, "hash", 201, () -> {
+            throw new RuntimeException("Cart is empty");
+        })).hasMessage("Cart is empty");
+        verify(idempotencyKeyJdbcRepository).release("key-3", TOKEN);
+    }
+}
@@ -0,0 +1,90 @@
+package com.order_payment_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.order_payment_service.dto.CartSnapshot;
+import com.order_payment_service.entity.Order;
+import com.order_payment_service.entity.OrderItem;
+import com.order_payment_service.repository.CartJdbcRepository;
+import com.order_payment_service.repository.OrderItemRepository;
+import com.order_payment_service.repository.OrderRepository;
+import com.order_payment_service.repository.OutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private CartJdbcRepository cartJdbcRepository;
+
+    @Mock
+    private CartService cartService;
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        orderService = new OrderService(orderRepository, orderItemRepository, cartJdbcRepository, cartService,
+                outboxRepository, objectMapper);
+        ReflectionTestUtils.setField(orderService, "orderCreatedTopic", "order_created");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCreateOrderFromCartAndQueueEventInOutbox() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        UUID orderId = UUID.randomUUID();
+        CartSnapshot cart = new CartSnapshot(userId, UUID.randomUUID(), "TRY", new BigDecimal("45.00"), List.of(
+                new CartSnapshot.Line(UUID.randomUUID(), UUID.randomUUID(), "Kalem", 3, new BigDecimal("5.00")),
+                new CartSnapshot.Line(UUID.randomUUID(), UUID.randomUUID(), "Defter", 1, new BigDecimal("30.00"))));
+        when(cartService.checkout(userId)).thenReturn(cart);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(orderId);
+            return order;
+        });
+
+        // When
+        Order order = orderService.createOrder(userId, Map.of("shippingAddress", "Istanbul"));
+
+        // Then
+        ArgumentCaptor<List<OrderItem>> items = ArgumentCaptor.forClass(List.class);
+        verify(orderItemRepository).saveAll(items.capture());
+        assertThat(items.getValue()).extracting(OrderItem::getTotalPrice)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("15.00"), new BigDecimal("30.00"));
+        assertThat(order.getTotalAmount()).isEqualByComparingTo("45.00");
+        verify(cartJdbcRepository).removeLines(cart.getCartId(),
+                cart.getItems().stream().map(CartSnapshot.Line::getId).toList());
+        verify(outboxRepository).append(eq("order_created"), eq(orderId.toString()), contains("\"Defter\""));
+    }
+}
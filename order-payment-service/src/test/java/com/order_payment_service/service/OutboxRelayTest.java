@@ -0,0 +1,71 @@
+package com.order_payment_service.service;
+
+import com.order_payment_service.repository.OutboxRepository;
+import com.order_payment_service.repository.OutboxRepository.OutboxEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxRepository, kafkaTemplate, transactionTemplate);
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 10);
+        ReflectionTestUtils.setField(outboxRelay, "maxBatchesPerPoll", 5);
+        ReflectionTestUtils.setField(outboxRelay, "sendTimeoutMs", 1000L);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.getArgument(0, TransactionCallback.class).doInTransaction(new SimpleTransactionStatus()));
+    }
+
+    @Test
+    void shouldMarkOnlyAcknowledgedPrefixAsSent() {
+        // Given
+        when(outboxRepository.claimUnsent(10)).thenReturn(List.of(
+                new OutboxEvent(1, "order_created", "o1", "{}"),
+                new OutboxEvent(2, "order_created", "o2", "{}"),
+                new OutboxEvent(3, "payment_succeeded", "o1", "{}")));
+        when(kafkaTemplate.send("order_created", "o1", "{}")).thenReturn(acked());
+        when(kafkaTemplate.send("order_created", "o2", "{}"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        when(kafkaTemplate.send("payment_succeeded", "o1", "{}")).thenReturn(acked());
+
+        // When
+        outboxRelay.relay();
+
+        // Then
+        verify(outboxRepository).markSent(List.of(1L));
+    }
+
+    private static CompletableFuture<SendResult<String, String>> acked() {
+        return CompletableFuture.completedFuture(new SendResult<>(null, null));
+    }
+}
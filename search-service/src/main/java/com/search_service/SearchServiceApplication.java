@@ -3,10 +3,12 @@ package com.search_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import com.search_service.config.SearchProperties;
 
 @SpringBootApplication
 @EnableConfigurationProperties(SearchProperties.class)
+@EnableScheduling
 public class SearchServiceApplication {
 
 	public static void main(String[] args) {
@@ -2,11 +2,48 @@ package com.search_service.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
 @ConfigurationProperties(prefix = "search")
 public class SearchProperties {
 
     private int defaultLimit = 20;
     private int maxLimit = 100;
+    private int suggestLimit = 10;
+    // The trigram fallback runs when the full-text stage returns fewer hits than this; 0 disables it
+    private int fuzzyMinHits = 3;
+    // Minimum pg_trgm word similarity for a fallback hit
+    private double fuzzyThreshold = 0.45;
+    // Upper bounds of the price facet buckets, ascending; the last bucket is open-ended
+    private List<BigDecimal> priceBuckets = List.of(new BigDecimal("100"), new BigDecimal("250"),
+            new BigDecimal("500"), new BigDecimal("1000"), new BigDecimal("2500"), new BigDecimal("5000"));
+    // Most frequent values returned per category and store facet
+    private int facetLimit = 20;
+    // Result cache bounds; the TTL caps staleness for changes the event-driven invalidation cannot see
+    private long cacheMaxEntries = 10_000;
+    private Duration cacheTtl = Duration.ofMinutes(5);
+    // BLENDED multiplies the text rank by a popularity boost and demotes out-of-stock products
+    private RankingMode rankingMode = RankingMode.BLENDED;
+    private double popularityBoost = 0.1;
+    private double outOfStockFactor = 0.5;
+    // Popularity points per unit ordered / per unit paid for
+    private long orderedWeight = 1;
+    private long paidWeight = 3;
+    private int popularSize = 100;
+    private int signalRetentionDays = 30;
+    // Rows per round trip for search reads, and the cap of the streaming endpoint
+    private int fetchSize = 100;
+    private int streamMaxLimit = 5000;
+    // Bulk reindex: catalog key ranges and how many are loaded concurrently
+    private int reindexPartitions = 32;
+    private int reindexParallelism = 4;
+
+    public enum RankingMode {
+        TEXT,
+        BLENDED
+    }
 
     public int getDefaultLimit() {
         return defaultLimit;
@@ -23,6 +60,148 @@ public class SearchProperties {
     public void setMaxLimit(int maxLimit) {
         this.maxLimit = maxLimit;
     }
-}
 
+    public int getSuggestLimit() {
+        return suggestLimit;
+    }
+
+    public void setSuggestLimit(int suggestLimit) {
+        this.suggestLimit = suggestLimit;
+    }
+
+    public int getFuzzyMinHits() {
+        return fuzzyMinHits;
+    }
+
+    public void setFuzzyMinHits(int fuzzyMinHits) {
+        this.fuzzyMinHits = fuzzyMinHits;
+    }
+
+    public double getFuzzyThreshold() {
+        return fuzzyThreshold;
+    }
+
+    public void setFuzzyThreshold(double fuzzyThreshold) {
+        this.fuzzyThreshold = fuzzyThreshold;
+    }
+
+    public List<BigDecimal> getPriceBuckets() {
+        return priceBuckets;
+    }
+
+    public void setPriceBuckets(List<BigDecimal> priceBuckets) {
+        this.priceBuckets = priceBuckets;
+    }
+
+    public int getFacetLimit() {
+        return facetLimit;
+    }
+
+    public void setFacetLimit(int facetLimit) {
+        this.facetLimit = facetLimit;
+    }
+
+    public long getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    public void setCacheMaxEntries(long cacheMaxEntries) {
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    public Duration getCacheTtl() {
+        return cacheTtl;
+    }
 
+    public void setCacheTtl(Duration cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+    public RankingMode getRankingMode() {
+        return rankingMode;
+    }
+
+    public void setRankingMode(RankingMode rankingMode) {
+        this.rankingMode = rankingMode;
+    }
+
+    public double getPopularityBoost() {
+        return popularityBoost;
+    }
+
+    public void setPopularityBoost(double popularityBoost) {
+        this.popularityBoost = popularityBoost;
+    }
+
+    public double getOutOfStockFactor() {
+        return outOfStockFactor;
+    }
+
+    public void setOutOfStockFactor(double outOfStockFactor) {
+        this.outOfStockFactor = outOfStockFactor;
+    }
+
+    public long getOrderedWeight() {
+        return orderedWeight;
+    }
+
+    public void setOrderedWeight(long orderedWeight) {
+        this.orderedWeight = orderedWeight;
+    }
+
+    public long getPaidWeight() {
+        return paidWeight;
+    }
+
+    public void setPaidWeight(long paidWeight) {
+        this.paidWeight = paidWeight;
+    }
+
+    public int getPopularSize() {
+        return popularSize;
+    }
+
+    public void setPopularSize(int popularSize) {
+        this.popularSize = popularSize;
+    }
+
+    public int getSignalRetentionDays() {
+        return signalRetentionDays;
+    }
+
+    public void setSignalRetentionDays(int signalRetentionDays) {
+        this.signalRetentionDays = signalRetentionDays;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getStreamMaxLimit() {
+        return streamMaxLimit;
+    }
+
+    public void setStreamMaxLimit(int streamMaxLimit) {
+        this.streamMaxLimit = streamMaxLimit;
+    }
+
+    public int getReindexPartitions() {
+        return reindexPartitions;
+    }
+
+    public void setReindexPartitions(int reindexPartitions) {
+        this.reindexPartitions = reindexPartitions;
+    }
+
+    public int getReindexParallelism() {
+        return reindexParallelism;
+    }
+
+    public void setReindexParallelism(int reindexParallelism) {
+        this.reindexParallelism = reindexParallelism;
+    }
+}
@@ -0,0 +1,39 @@
+package com.search_service.controller;
+
+import com.search_service.model.ReindexStatus;
+import com.search_service.service.ReindexService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search/admin/reindex")
+public class ReindexController {
+
+    private final ReindexService reindexService;
+
+    public ReindexController(ReindexService reindexService) {
+        this.reindexService = reindexService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ReindexStatus> start() {
+        return ResponseEntity.accepted().body(reindexService.start());
+    }
+
+    @GetMapping
+    public ResponseEntity<ReindexStatus> status() {
+        return ResponseEntity.ok(reindexService.status());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, Object>> conflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+}
@@ -1,11 +1,21 @@
 package com.search_service.controller;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
+import com.search_service.model.FacetedSearchResult;
+import com.search_service.model.ProductFilter;
+import com.search_service.model.ProductHit;
+import com.search_service.model.SearchHit;
+import com.search_service.model.SearchPage;
+import com.search_service.model.Suggestion;
 import com.search_service.service.SearchService;
 
 @RestController
@@ -19,9 +29,52 @@ public class SearchController {
     }
 
     @GetMapping("/api/search")
-    public ResponseEntity<List<Map<String, Object>>> search(@RequestParam String q, @RequestParam(defaultValue = "product") String type, @RequestParam(defaultValue = "0") int page) {
-        return ResponseEntity.ok(searchService.search(q, type, page));
+    public ResponseEntity<List<SearchHit>> search(@RequestParam String q, @RequestParam(defaultValue = "product") String type, @RequestParam(defaultValue = "0") int page,
+                                                            @RequestParam(required = false) String cursor) {
+        SearchPage result = searchService.search(q, type, page, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.getNextCursor() != null) {
+            response.header("X-Next-Cursor", result.getNextCursor());
+        }
+        return response.body(result.getItems());
+    }
+
+    @GetMapping(value = "/api/search/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream(@RequestParam String q, @RequestParam(defaultValue = "product") String type,
+                                                        @RequestParam(defaultValue = "1000") int limit) {
+        // Reject a bad type while a 400 can still be sent; the body is written after the headers
+        SearchService.isProductType(type);
+        StreamingResponseBody body = out -> searchService.streamSearch(q, type, limit, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/api/search/faceted")
+    public ResponseEntity<FacetedSearchResult> faceted(@RequestParam String q, @RequestParam(defaultValue = "0") int page,
+                                                       @RequestParam(required = false) String category,
+                                                       @RequestParam(required = false) UUID storeId,
+                                                       @RequestParam(required = false) BigDecimal minPrice,
+                                                       @RequestParam(required = false) BigDecimal maxPrice) {
+        ProductFilter filter = ProductFilter.builder()
+                .category(category == null || category.isBlank() ? null : category.trim())
+                .storeId(storeId)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build();
+        return ResponseEntity.ok(searchService.facetedSearch(q, filter, page));
     }
-}
 
+    @GetMapping("/api/search/popular")
+    public ResponseEntity<List<ProductHit>> popular(@RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchService.popular(limit));
+    }
+
+    @GetMapping("/api/search/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchService.suggest(q, limit));
+    }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+}
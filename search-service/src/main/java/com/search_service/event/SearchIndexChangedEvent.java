@@ -0,0 +1,31 @@
+package com.search_service.event;
+
+import com.search_service.model.ProductDocument;
+import com.search_service.model.StoreDocument;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by the indexer for every flushed batch; listeners that keep derived in-memory state
+ * react after the batch has been committed.
+ */
+@Getter
+@AllArgsConstructor
+public class SearchIndexChangedEvent {
+
+    private final List<ProductDocument> upsertedProducts;
+    private final Collection<UUID> deletedProducts;
+    private final List<StoreDocument> upsertedStores;
+
+    public static SearchIndexChangedEvent products(List<ProductDocument> upserted, Collection<UUID> deleted) {
+        return new SearchIndexChangedEvent(upserted, deleted, List.of());
+    }
+
+    public static SearchIndexChangedEvent stores(List<StoreDocument> upserted) {
+        return new SearchIndexChangedEvent(List.of(), List.of(), upserted);
+    }
+}
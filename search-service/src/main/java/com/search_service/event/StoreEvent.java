@@ -0,0 +1,33 @@
+package com.search_service.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * {@code store.updated} payload, see contracts/kafka/store.updated.schema.json.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class StoreEvent {
+
+    private UUID eventId;
+    private String eventType;
+    private Store store;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Store {
+        private UUID id;
+        private String name;
+        private String bio;
+        private Boolean isApproved;
+    }
+}
@@ -0,0 +1,90 @@
+package com.search_service.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.search_service.event.OrderCreatedEvent;
+import com.search_service.event.PaymentSucceededEvent;
+import com.search_service.event.ProductEvent;
+import com.search_service.event.StoreEvent;
+import com.search_service.service.PopularityService;
+import com.search_service.service.SearchIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch listeners feeding the search tables and the popularity signals. Offsets are committed by
+ * the container only after the listener returns, i.e. after the batch has been flushed; a failed
+ * flush is retried by the error handler instead of being acknowledged.
+ */
+@Slf4j
+@Component
+public class SearchIndexConsumer {
+
+    private final SearchIndexService searchIndexService;
+    private final PopularityService popularityService;
+    private final ObjectMapper objectMapper;
+
+    public SearchIndexConsumer(SearchIndexService searchIndexService, PopularityService popularityService,
+                               ObjectMapper objectMapper) {
+        this.searchIndexService = searchIndexService;
+        this.popularityService = popularityService;
+        this.objectMapper = objectMapper;
+    }
+
+    @KafkaListener(topics = "${search.indexing.product-topic:product.events}",
+            containerFactory = "indexingListenerContainerFactory")
+    public void onProductEvents(List<ConsumerRecord<String, String>> records) {
+        List<ProductEvent> events = parse(records, ProductEvent.class);
+        if (!events.isEmpty()) {
+            searchIndexService.applyProductEvents(events);
+        }
+    }
+
+    @KafkaListener(topics = "${search.indexing.store-topic:store.updated}",
+            containerFactory = "indexingListenerContainerFactory")
+    public void onStoreEvents(List<ConsumerRecord<String, String>> records) {
+        List<StoreEvent> events = parse(records, StoreEvent.class);
+        if (!events.isEmpty()) {
+            searchIndexService.applyStoreEvents(events);
+        }
+    }
+
+    @KafkaListener(topics = "${search.popularity.order-created-topic:order_created}",
+            containerFactory = "indexingListenerContainerFactory")
+    public void onOrderCreated(List<ConsumerRecord<String, String>> records) {
+        List<OrderCreatedEvent> events = parse(records, OrderCreatedEvent.class);
+        if (!events.isEmpty()) {
+            popularityService.recordOrders(events);
+        }
+    }
+
+    @KafkaListener(topics = "${search.popularity.payment-succeeded-topic:payment_succeeded}",
+            containerFactory = "indexingListenerContainerFactory")
+    public void onPaymentSucceeded(List<ConsumerRecord<String, String>> records) {
+        List<PaymentSucceededEvent> events = parse(records, PaymentSucceededEvent.class);
+        if (!events.isEmpty()) {
+            popularityService.recordPayments(events);
+        }
+    }
+
+    private <T> List<T> parse(List<ConsumerRecord<String, String>> records, Class<T> type) {
+        List<T> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            if (record.value() == null) {
+                continue;
+            }
+            try {
+                events.add(objectMapper.readValue(record.value(), type));
+            } catch (JsonProcessingException e) {
+                // A malformed payload will never parse; skip it rather than blocking the partition
+                log.error("[search] Dropping unparseable record {}-{}@{}", record.topic(), record.partition(), record.offset(), e);
+            }
+        }
+        return events;
+    }
+}
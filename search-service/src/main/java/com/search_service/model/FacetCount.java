@@ -0,0 +1,18 @@
+package com.search_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One row of the grouping-set facet query: the facet it belongs to and its value, or the overall
+ * hit count when {@code facet} is {@link Facet#TOTAL}.
+ */
+@Getter
+@AllArgsConstructor
+public class FacetCount {
+
+    public enum Facet { CATEGORY, PRICE_RANGE, STORE, TOTAL }
+
+    private final Facet facet;
+    private final FacetValue value;
+}
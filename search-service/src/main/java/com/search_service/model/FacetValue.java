@@ -0,0 +1,26 @@
+package com.search_service.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One entry of a facet sidebar. {@code value} is what the UI sends back as the filter; price buckets
+ * also carry their bounds, {@code to} being {@code null} for the open-ended top bucket.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FacetValue {
+    private String value;
+    private String label;
+    private BigDecimal from;
+    private BigDecimal to;
+    private long count;
+}
@@ -0,0 +1,22 @@
+package com.search_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of product hits together with the facet counts over all hits, so a results page and its
+ * filter sidebar render from a single request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedSearchResult {
+    private List<ProductHit> items;
+    private long total;
+    private SearchFacets facets;
+}
@@ -0,0 +1,27 @@
+package com.search_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A row of {@code search.search_products} as written by the indexer. {@code tsv} is derived by trigger.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductDocument {
+    private UUID productId;
+    private String name;
+    private String attrsText;
+    private boolean active;
+    private int stock;
+    private String category;
+    private BigDecimal price;
+    private UUID sellerId;
+}
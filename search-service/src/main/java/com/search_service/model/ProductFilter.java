@@ -0,0 +1,23 @@
+package com.search_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Facet selections applied on top of a product search. Every field is optional.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFilter {
+    private String category;
+    private UUID storeId;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+}
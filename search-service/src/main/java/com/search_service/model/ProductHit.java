@@ -0,0 +1,39 @@
+package com.search_service.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A product search result. Serialized with the {@code search_products} column names the API has
+ * always returned.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class ProductHit implements SearchHit {
+    private UUID productId;
+    private String name;
+    private String attrsText;
+    @JsonProperty("is_active")
+    private boolean active;
+    private int stock;
+    private String category;
+    private BigDecimal price;
+    private UUID sellerId;
+    private float rank;
+
+    @Override
+    public UUID documentId() {
+        return productId;
+    }
+}
@@ -0,0 +1,34 @@
+package com.search_service.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReindexStatus {
+
+    public enum State {
+        IDLE,
+        LOADING,
+        INDEXING,
+        SWAPPING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private State state;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private int partitionsTotal;
+    private int partitionsDone;
+    private long rowsLoaded;
+    private String error;
+}
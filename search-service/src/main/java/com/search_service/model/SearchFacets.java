@@ -0,0 +1,22 @@
+package com.search_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchFacets {
+    private List<FacetValue> categories;
+    private List<FacetValue> priceRanges;
+    private List<FacetValue> stores;
+
+    public static SearchFacets empty() {
+        return new SearchFacets(List.of(), List.of(), List.of());
+    }
+}
@@ -0,0 +1,14 @@
+package com.search_service.model;
+
+import java.util.UUID;
+
+/**
+ * A ranked search result. {@link #documentId()} is deliberately not a bean getter so that it stays
+ * out of the JSON, which carries the id under its own column name.
+ */
+public interface SearchHit {
+
+    UUID documentId();
+
+    float getRank();
+}
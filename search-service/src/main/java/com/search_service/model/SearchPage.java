@@ -0,0 +1,30 @@
+package com.search_service.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of search hits plus the opaque cursor to fetch the next one ({@code null} on the last page).
+ */
+public class SearchPage {
+
+    private final List<SearchHit> items;
+    private final String nextCursor;
+
+    public SearchPage(List<? extends SearchHit> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public static SearchPage empty() {
+        return new SearchPage(List.of(), null);
+    }
+
+    public List<SearchHit> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,22 @@
+package com.search_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * A row of {@code search.search_stores} as written by the indexer. {@code tsv} is derived by trigger.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoreDocument {
+    private UUID storeId;
+    private String name;
+    private String bio;
+    private boolean approved;
+}
@@ -0,0 +1,33 @@
+package com.search_service.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * A store search result, serialized with the {@code search_stores} column names.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class StoreHit implements SearchHit {
+    private UUID storeId;
+    private String name;
+    private String bio;
+    @JsonProperty("is_approved")
+    private boolean approved;
+    private float rank;
+
+    @Override
+    public UUID documentId() {
+        return storeId;
+    }
+}
@@ -0,0 +1,26 @@
+package com.search_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * A typeahead suggestion: a product or store name, ranked by popularity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Suggestion {
+
+    public enum Type {
+        PRODUCT,
+        STORE
+    }
+
+    private UUID id;
+    private Type type;
+    private String name;
+    private long popularity;
+}
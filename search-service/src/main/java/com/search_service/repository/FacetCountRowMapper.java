@@ -0,0 +1,55 @@
+package com.search_service.repository;
+
+import com.search_service.model.FacetCount;
+import com.search_service.model.FacetValue;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maps a {@code GROUPING SETS} facet row to the facet it was grouped by. Price buckets are turned
+ * back into their bounds, so the mapper is built per query with the bounds it was run with.
+ * Returns {@code null} for the rows grouping a {@code NULL} column, which carry no facet value.
+ */
+class FacetCountRowMapper implements RowMapper<FacetCount> {
+
+    private final List<BigDecimal> bounds;
+
+    FacetCountRowMapper(List<BigDecimal> bounds) {
+        this.bounds = bounds;
+    }
+
+    @Override
+    public FacetCount mapRow(ResultSet rs, int rowNum) throws SQLException {
+        long count = rs.getLong("hits");
+        if (rs.getInt("g_category") == 0) {
+            String category = rs.getString("category");
+            return category == null ? null : new FacetCount(FacetCount.Facet.CATEGORY,
+                    FacetValue.builder().value(category).label(category).count(count).build());
+        }
+        if (rs.getInt("g_bucket") == 0) {
+            int bucket = rs.getInt("bucket");
+            return rs.wasNull() ? null : new FacetCount(FacetCount.Facet.PRICE_RANGE, priceRange(bucket, count));
+        }
+        if (rs.getInt("g_seller") == 0) {
+            UUID sellerId = rs.getObject("seller_id", UUID.class);
+            return sellerId == null ? null : new FacetCount(FacetCount.Facet.STORE, FacetValue.builder()
+                    .value(sellerId.toString())
+                    .label(rs.getString("store_name"))
+                    .count(count)
+                    .build());
+        }
+        return new FacetCount(FacetCount.Facet.TOTAL, FacetValue.builder().count(count).build());
+    }
+
+    private FacetValue priceRange(int bucket, long count) {
+        BigDecimal from = bucket == 0 ? BigDecimal.ZERO : bounds.get(bucket - 1);
+        BigDecimal to = bucket < bounds.size() ? bounds.get(bucket) : null;
+        String value = from.toPlainString() + "-" + (to != null ? to.toPlainString() : "");
+        return FacetValue.builder().value(value).from(from).to(to).count(count).build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.search_service.repository;
+
+import com.search_service.event.OrderCreatedEvent;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class JdbcPopularityRepository implements PopularityRepository {
+
+    // The counted rows are flagged and summed in the same statement, so a signal is applied exactly once
+    private static final String APPLY_ORDERED = """
+            WITH counted AS (
+                UPDATE order_item_signals SET ordered_counted = TRUE
+                WHERE NOT ordered_counted
+                RETURNING product_id, quantity
+            )
+            UPDATE search_products sp SET popularity = sp.popularity + d.delta
+            FROM (SELECT product_id, SUM(quantity) * :weight AS delta FROM counted GROUP BY product_id) d
+            WHERE sp.product_id = d.product_id
+        """;
+
+    private static final String APPLY_PAID = """
+            WITH counted AS (
+                UPDATE order_item_signals s SET paid_counted = TRUE
+                FROM paid_orders p
+                WHERE p.order_id = s.order_id AND NOT s.paid_counted
+                RETURNING s.product_id, s.quantity
+            )
+            UPDATE search_products sp SET popularity = sp.popularity + d.delta
+            FROM (SELECT product_id, SUM(quantity) * :weight AS delta FROM counted GROUP BY product_id) d
+            WHERE sp.product_id = d.product_id
+        """;
+
+    // score is popularity relative to the current leader, so it stays within NUMERIC(8,4)
+    private static final String INSERT_POPULAR = """
+            INSERT INTO popular_products (product_id, rank_position, score)
+            SELECT product_id,
+                   ROW_NUMBER() OVER (ORDER BY popularity DESC, product_id),
+                   ROUND(popularity::numeric / MAX(popularity) OVER (), 4)
+            FROM (
+                SELECT product_id, popularity
+                FROM search_products
+                WHERE is_active = TRUE AND stock > 0 AND popularity > 0
+                ORDER BY popularity DESC, product_id
+                LIMIT :size
+            ) top
+        """;
+
+    // Arbitrary advisory lock key owned by the popularity job
+    private static final long REFRESH_LOCK_KEY = 0x5EA7C4_0001L;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JdbcPopularityRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean tryLockRefresh() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(:key)",
+                new MapSqlParameterSource("key", REFRESH_LOCK_KEY), Boolean.class));
+    }
+
+    @Override
+    public void saveOrderItems(List<OrderCreatedEvent> orders) {
+        List<SqlParameterSource> rows = new ArrayList<>();
+        for (OrderCreatedEvent order : orders) {
+            for (OrderCreatedEvent.Item item : order.getItems()) {
+                rows.add(new MapSqlParameterSource()
+                        .addValue("orderId", order.getOrderId())
+                        .addValue("productId", item.getProductId())
+                        .addValue("quantity", item.getQuantity()));
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        // Redelivered orders hit the primary key and are ignored
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO order_item_signals (order_id, product_id, quantity)
+                VALUES (:orderId, :productId, :quantity)
+                ON CONFLICT (order_id, product_id) DO NOTHING
+            """, rows.toArray(SqlParameterSource[]::new));
+    }
+
+    @Override
+    public void savePaidOrders(Collection<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] rows = orderIds.stream()
+                .map(id -> new MapSqlParameterSource("orderId", id))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO paid_orders (order_id) VALUES (:orderId) ON CONFLICT (order_id) DO NOTHING", rows);
+    }
+
+    @Override
+    public int applyOrderedSignals(long weight) {
+        return jdbcTemplate.update(APPLY_ORDERED, new MapSqlParameterSource("weight", weight));
+    }
+
+    @Override
+    public int applyPaidSignals(long weight) {
+        return jdbcTemplate.update(APPLY_PAID, new MapSqlParameterSource("weight", weight));
+    }
+
+    @Override
+    public void refreshPopularProducts(int size) {
+        jdbcTemplate.update("DELETE FROM popular_products", new MapSqlParameterSource());
+        jdbcTemplate.update(INSERT_POPULAR, new MapSqlParameterSource("size", size));
+    }
+
+    @Override
+    public void purgeSignals(int retentionDays) {
+        MapSqlParameterSource params = new MapSqlParameterSource("days", retentionDays);
+        jdbcTemplate.update("""
+                DELETE FROM order_item_signals
+                WHERE ordered_counted AND created_at < NOW() - make_interval(days => :days)
+            """, params);
+        jdbcTemplate.update("DELETE FROM paid_orders WHERE paid_at < NOW() - make_interval(days => :days)", params);
+    }
+}
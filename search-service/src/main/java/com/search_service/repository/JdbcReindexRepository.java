@@ -0,0 +1,135 @@
+package com.search_service.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+@Repository
+public class JdbcReindexRepository implements ReindexRepository {
+
+    private static final String SHADOW = "search.search_products_shadow";
+    private static final String PRIMARY_KEY = "search_products_pkey";
+    // Shadow indexes live next to the live ones until the swap renames them
+    private static final String SHADOW_SUFFIX = "_rx";
+    private static final Pattern LIVE_TABLE = Pattern.compile(" ON (search\\.)?search_products ");
+
+    private static final String COLUMNS =
+            "product_id, name, attrs_text, tsv, is_active, stock, popularity, name_folded, category, price, seller_id, indexed_at";
+
+    // Same document shape as the Kafka indexer; popularity is carried over from the live row
+    private static final String LOAD_RANGE = """
+            INSERT INTO search.search_products_shadow (%s)
+            SELECT d.id, d.name, d.attrs_text,
+                   to_tsvector('simple', unaccent(d.name || ' ' || coalesce(d.attrs_text, ''))),
+                   d.is_active, d.stock, coalesce(live.popularity, 0), lower(unaccent(d.name)),
+                   d.category, d.price, d.store_id, NOW()
+            FROM (
+                SELECT p.id, p.name, p.is_active, p.stock, p.price, p.store_id, c.name AS category,
+                       NULLIF(concat_ws(' ', c.name, p.description, a.attrs), '') AS attrs_text
+                FROM catalog.products p
+                LEFT JOIN catalog.categories c ON c.id = p.category_id
+                LEFT JOIN LATERAL (
+                    SELECT string_agg(pa.key || ' ' || pa.value, ' ') AS attrs
+                    FROM catalog.product_attrs pa
+                    WHERE pa.product_id = p.id
+                ) a ON TRUE
+                WHERE p.id >= :from AND (CAST(:to AS uuid) IS NULL OR p.id < :to)
+            ) d
+            LEFT JOIN search.search_products live ON live.product_id = d.id
+        """.formatted(COLUMNS);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JdbcReindexRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public LocalDateTime createShadowTable() {
+        execute("DROP TABLE IF EXISTS " + SHADOW);
+        execute("CREATE TABLE " + SHADOW + " (LIKE search.search_products INCLUDING DEFAULTS)");
+        // indexed_at is a TIMESTAMP filled by NOW(), so compare against the server clock, not the JVM's
+        return jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", new MapSqlParameterSource(), LocalDateTime.class);
+    }
+
+    @Override
+    public long loadRange(UUID from, UUID to) {
+        return jdbcTemplate.update(LOAD_RANGE, new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to));
+    }
+
+    @Override
+    public Map<String, String> liveIndexes() {
+        Map<String, String> indexes = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                SELECT indexname, indexdef FROM pg_indexes
+                WHERE schemaname = 'search' AND tablename = 'search_products'
+                ORDER BY indexname
+            """, new MapSqlParameterSource(), rs -> {
+            indexes.put(rs.getString("indexname"), rs.getString("indexdef"));
+        });
+        return indexes;
+    }
+
+    @Override
+    public void createShadowIndexes(Map<String, String> liveIndexes) {
+        liveIndexes.forEach((name, definition) -> {
+            execute("DROP INDEX IF EXISTS search." + name + SHADOW_SUFFIX);
+            String shadowDefinition = LIVE_TABLE.matcher(definition.replace(" INDEX " + name + " ", " INDEX " + name + SHADOW_SUFFIX + " "))
+                    .replaceFirst(" ON " + SHADOW + " ");
+            execute(shadowDefinition);
+        });
+        execute("ANALYZE " + SHADOW);
+    }
+
+    @Override
+    public int pruneDeleted() {
+        return jdbcTemplate.update("""
+                DELETE FROM search.search_products_shadow s
+                WHERE NOT EXISTS (SELECT 1 FROM catalog.products p WHERE p.id = s.product_id)
+            """, new MapSqlParameterSource());
+    }
+
+    @Override
+    @Transactional
+    public void swap(LocalDateTime loadStartedAt, Map<String, String> liveIndexes) {
+        // Queries and indexer writes wait here for the few statements below, nothing scans the table
+        execute("LOCK TABLE search.search_products IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.update("""
+                INSERT INTO search.search_products_shadow (%1$s)
+                SELECT %1$s FROM search.search_products WHERE indexed_at >= :since
+                ON CONFLICT (product_id) DO UPDATE SET
+                    name = EXCLUDED.name, attrs_text = EXCLUDED.attrs_text, tsv = EXCLUDED.tsv,
+                    is_active = EXCLUDED.is_active, stock = EXCLUDED.stock, popularity = EXCLUDED.popularity,
+                    name_folded = EXCLUDED.name_folded, category = EXCLUDED.category, price = EXCLUDED.price,
+                    seller_id = EXCLUDED.seller_id, indexed_at = EXCLUDED.indexed_at
+            """.formatted(COLUMNS), new MapSqlParameterSource("since", loadStartedAt));
+
+        execute("DROP TABLE search.search_products");
+        execute("ALTER TABLE " + SHADOW + " RENAME TO search_products");
+        for (String name : liveIndexes.keySet()) {
+            if (name.equals(PRIMARY_KEY)) {
+                execute("ALTER TABLE search.search_products ADD CONSTRAINT " + PRIMARY_KEY
+                        + " PRIMARY KEY USING INDEX " + PRIMARY_KEY + SHADOW_SUFFIX);
+            } else {
+                execute("ALTER INDEX search." + name + SHADOW_SUFFIX + " RENAME TO " + name);
+            }
+        }
+        execute("""
+                CREATE TRIGGER trg_sp_tsv BEFORE INSERT OR UPDATE ON search.search_products
+                FOR EACH ROW EXECUTE FUNCTION search.update_sp_tsv()
+            """);
+    }
+
+    private void execute(String sql) {
+        jdbcTemplate.getJdbcTemplate().execute(sql);
+    }
+}
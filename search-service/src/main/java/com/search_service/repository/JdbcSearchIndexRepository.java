@@ -0,0 +1,130 @@
+package com.search_service.repository;
+
+import com.search_service.model.ProductDocument;
+import com.search_service.model.StoreDocument;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes index rows with multi-row {@code INSERT ... ON CONFLICT} statements so that a whole
+ * Kafka batch costs a handful of round trips. Callers must pass at most one document per key,
+ * Postgres rejects a statement that touches the same row twice.
+ */
+@Repository
+public class JdbcSearchIndexRepository implements SearchIndexRepository {
+
+    // 8 bind parameters per product row keeps a full chunk far below the 32767 parameter limit
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JdbcSearchIndexRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void upsertProducts(List<ProductDocument> documents) {
+        for (List<ProductDocument> chunk : partition(documents)) {
+            StringBuilder sql = new StringBuilder(
+                    "INSERT INTO search_products (product_id, name, attrs_text, is_active, stock, category, price, seller_id) VALUES ");
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            for (int i = 0; i < chunk.size(); i++) {
+                ProductDocument doc = chunk.get(i);
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append("(:id").append(i)
+                        .append(", :name").append(i)
+                        .append(", :attrs").append(i)
+                        .append(", :active").append(i)
+                        .append(", :stock").append(i)
+                        .append(", :category").append(i)
+                        .append(", :price").append(i)
+                        .append(", :seller").append(i)
+                        .append(')');
+                params.addValue("id" + i, doc.getProductId())
+                        .addValue("name" + i, doc.getName())
+                        .addValue("attrs" + i, doc.getAttrsText())
+                        .addValue("active" + i, doc.isActive())
+                        .addValue("stock" + i, doc.getStock())
+                        .addValue("category" + i, doc.getCategory())
+                        .addValue("price" + i, doc.getPrice())
+                        .addValue("seller" + i, doc.getSellerId());
+            }
+            sql.append("""
+                 ON CONFLICT (product_id) DO UPDATE SET
+                    name = EXCLUDED.name,
+                    attrs_text = EXCLUDED.attrs_text,
+                    is_active = EXCLUDED.is_active,
+                    stock = EXCLUDED.stock,
+                    category = EXCLUDED.category,
+                    price = EXCLUDED.price,
+                    seller_id = EXCLUDED.seller_id
+                """);
+            jdbcTemplate.update(sql.toString(), params);
+        }
+    }
+
+    @Override
+    public void deleteProducts(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM search_products WHERE product_id IN (:ids)",
+                new MapSqlParameterSource("ids", productIds));
+    }
+
+    @Override
+    public void upsertStores(List<StoreDocument> documents) {
+        for (List<StoreDocument> chunk : partition(documents)) {
+            StringBuilder sql = new StringBuilder(
+                    "INSERT INTO search_stores (store_id, name, bio, is_approved) VALUES ");
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            for (int i = 0; i < chunk.size(); i++) {
+                StoreDocument doc = chunk.get(i);
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append("(:id").append(i)
+                        .append(", :name").append(i)
+                        .append(", :bio").append(i)
+                        .append(", :approved").append(i)
+                        .append(')');
+                params.addValue("id" + i, doc.getStoreId())
+                        .addValue("name" + i, doc.getName())
+                        .addValue("bio" + i, doc.getBio())
+                        .addValue("approved" + i, doc.isApproved());
+            }
+            sql.append("""
+                 ON CONFLICT (store_id) DO UPDATE SET
+                    name = EXCLUDED.name,
+                    bio = EXCLUDED.bio,
+                    is_approved = EXCLUDED.is_approved
+                """);
+            jdbcTemplate.update(sql.toString(), params);
+        }
+    }
+
+    @Override
+    public void deleteStores(Collection<UUID> storeIds) {
+        if (storeIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM search_stores WHERE store_id IN (:ids)",
+                new MapSqlParameterSource("ids", storeIds));
+    }
+
+    private static <T> List<List<T>> partition(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += MAX_ROWS_PER_STATEMENT) {
+            chunks.add(items.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, items.size())));
+        }
+        return chunks;
+    }
+}
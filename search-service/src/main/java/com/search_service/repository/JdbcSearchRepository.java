@@ -1,50 +1,148 @@
 package com.search_service.repository;
 
+import com.search_service.config.SearchProperties;
+import com.search_service.model.FacetCount;
+import com.search_service.model.ProductFilter;
+import com.search_service.model.ProductHit;
+import com.search_service.model.StoreHit;
+import com.search_service.model.Suggestion;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
+import java.math.BigDecimal;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Repository
 public class JdbcSearchRepository implements SearchRepository {
 
+    // Callers append ORDER BY rank DESC, <id> DESC: the id tie-breaker makes the order total,
+    // which both OFFSET paging and the keyset seek rely on. The product rank is cast to real so that
+    // a cursor carrying it as a float compares equal to the row it came from
+    private static final String PRODUCT_HITS = """
+            SELECT product_id, name, attrs_text, is_active, stock, category, price, seller_id,
+                   CAST(ts_rank_cd(tsv, websearch_to_tsquery('simple', unaccent(:q)))
+                        * (1 + :popularityBoost * ln(1 + popularity::float8))
+                        * CASE WHEN stock > 0 THEN 1 ELSE :outOfStockFactor END AS real) AS rank
+            FROM search_products
+            WHERE tsv @@ websearch_to_tsquery('simple', unaccent(:q))
+              AND is_active = TRUE
+        """;
+
+    private static final String STORE_HITS = """
+            SELECT store_id, name, bio, is_approved,
+                   ts_rank_cd(tsv, websearch_to_tsquery('simple', unaccent(:q))) AS rank
+            FROM search_stores
+            WHERE tsv @@ websearch_to_tsquery('simple', unaccent(:q))
+              AND is_approved = TRUE
+        """;
+
+    // Typo-tolerant stage: word_similarity of the folded query against the folded name. The <% operator
+    // is what lets the GIN trigram index serve the query; its cut-off is pg_trgm.word_similarity_threshold
+    private static final String PRODUCT_FUZZY_HITS = """
+            SELECT product_id, name, attrs_text, is_active, stock, category, price, seller_id,
+                   word_similarity(lower(unaccent(:q)), name_folded) AS rank
+            FROM search_products
+            WHERE lower(unaccent(:q)) <% name_folded
+              AND is_active = TRUE
+            ORDER BY rank DESC, product_id DESC
+            LIMIT :limit
+        """;
+
+    private static final String STORE_FUZZY_HITS = """
+            SELECT store_id, name, bio, is_approved,
+                   word_similarity(lower(unaccent(:q)), name_folded) AS rank
+            FROM search_stores
+            WHERE lower(unaccent(:q)) <% name_folded
+              AND is_approved = TRUE
+            ORDER BY rank DESC, store_id DESC
+            LIMIT :limit
+        """;
+
+    // Appended to PRODUCT_HITS; a null parameter switches its condition off
+    private static final String PRODUCT_FILTERS = """
+              AND (CAST(:category AS text) IS NULL OR category = :category)
+              AND (CAST(:storeId AS uuid) IS NULL OR seller_id = :storeId)
+              AND (CAST(:minPrice AS numeric) IS NULL OR price >= :minPrice)
+              AND (CAST(:maxPrice AS numeric) IS NULL OR price <= :maxPrice)
+        """;
+
+    // All facet counts and the total in one pass over the hits: each grouping set is one facet,
+    // the empty set is the total. width_bucket maps a price to its slot in the :bounds array
+    private static final String PRODUCT_FACETS = """
+            SELECT f.*, s.name AS store_name
+            FROM (
+                SELECT GROUPING(category) AS g_category,
+                       GROUPING(bucket) AS g_bucket,
+                       GROUPING(seller_id) AS g_seller,
+                       category, bucket, seller_id, COUNT(*) AS hits
+                FROM (
+                    SELECT category, width_bucket(price, CAST(:bounds AS numeric[])) AS bucket, seller_id
+                    FROM search_products
+                    WHERE tsv @@ websearch_to_tsquery('simple', unaccent(:q))
+                      AND is_active = TRUE
+        """ + PRODUCT_FILTERS + """
+                ) matched
+                GROUP BY GROUPING SETS ((category), (bucket), (seller_id), ())
+            ) f
+            LEFT JOIN search_stores s ON s.store_id = f.seller_id
+        """;
+
     private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SearchProperties searchProperties;
 
-    public JdbcSearchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
+    public JdbcSearchRepository(DataSource dataSource, SearchProperties searchProperties) {
+        // Own template so the fetch size only applies to search reads
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(searchProperties.getFetchSize());
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+        this.searchProperties = searchProperties;
     }
 
     @Override
-    public List<Map<String, Object>> searchProducts(String queryText, int limit, int offset) {
-        String sql = """
-            SELECT product_id, name, attrs_text, is_active, stock,
-                   ts_rank_cd(tsv, websearch_to_tsquery('simple', :q)) AS rank
-            FROM search_products
-            WHERE tsv @@ websearch_to_tsquery('simple', :q)
-              AND is_active = TRUE
-            ORDER BY rank DESC
+    public List<ProductHit> searchProducts(String queryText, int limit, int offset) {
+        String sql = PRODUCT_HITS + """
+            ORDER BY rank DESC, product_id DESC
             LIMIT :limit OFFSET :offset
         """;
 
-        MapSqlParameterSource params = new MapSqlParameterSource()
+        MapSqlParameterSource params = rankingParams()
                 .addValue("q", queryText)
                 .addValue("limit", limit)
                 .addValue("offset", offset);
 
-        return jdbcTemplate.queryForList(sql, params);
+        return jdbcTemplate.query(sql, params, ProductHitRowMapper.INSTANCE);
     }
 
     @Override
-    public List<Map<String, Object>> searchStores(String queryText, int limit, int offset) {
-        String sql = """
-            SELECT store_id, name, bio, is_approved,
-                   ts_rank_cd(tsv, websearch_to_tsquery('simple', :q)) AS rank
-            FROM search_stores
-            WHERE tsv @@ websearch_to_tsquery('simple', :q)
-              AND is_approved = TRUE
-            ORDER BY rank DESC
+    public List<ProductHit> searchProductsAfter(String queryText, int limit, float afterRank, UUID afterId) {
+        String sql = "SELECT * FROM (" + PRODUCT_HITS + """
+            ) hits
+            WHERE (rank, product_id) < (CAST(:afterRank AS real), :afterId)
+            ORDER BY rank DESC, product_id DESC
+            LIMIT :limit
+        """;
+
+        MapSqlParameterSource params = rankingParams()
+                .addValue("q", queryText)
+                .addValue("afterRank", afterRank)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+
+        return jdbcTemplate.query(sql, params, ProductHitRowMapper.INSTANCE);
+    }
+
+    @Override
+    public List<StoreHit> searchStores(String queryText, int limit, int offset) {
+        String sql = STORE_HITS + """
+            ORDER BY rank DESC, store_id DESC
             LIMIT :limit OFFSET :offset
         """;
 
@@ -53,8 +151,158 @@ public class JdbcSearchRepository implements SearchRepository {
                 .addValue("limit", limit)
                 .addValue("offset", offset);
 
-        return jdbcTemplate.queryForList(sql, params);
+        return jdbcTemplate.query(sql, params, StoreHitRowMapper.INSTANCE);
+    }
+
+    @Override
+    public List<StoreHit> searchStoresAfter(String queryText, int limit, float afterRank, UUID afterId) {
+        String sql = "SELECT * FROM (" + STORE_HITS + """
+            ) hits
+            WHERE (rank, store_id) < (CAST(:afterRank AS real), :afterId)
+            ORDER BY rank DESC, store_id DESC
+            LIMIT :limit
+        """;
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("q", queryText)
+                .addValue("afterRank", afterRank)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+
+        return jdbcTemplate.query(sql, params, StoreHitRowMapper.INSTANCE);
+    }
+
+    @Override
+    public List<ProductHit> searchProductsFiltered(String queryText, ProductFilter filter, int limit, int offset) {
+        String sql = PRODUCT_HITS + PRODUCT_FILTERS + """
+            ORDER BY rank DESC, product_id DESC
+            LIMIT :limit OFFSET :offset
+        """;
+
+        MapSqlParameterSource params = filterParams(queryText, filter)
+                .addValues(rankingParams().getValues())
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+
+        return jdbcTemplate.query(sql, params, ProductHitRowMapper.INSTANCE);
+    }
+
+    @Override
+    public List<FacetCount> productFacetCounts(String queryText, ProductFilter filter, List<BigDecimal> priceBounds) {
+        String bounds = priceBounds.stream()
+                .map(BigDecimal::toPlainString)
+                .collect(Collectors.joining(",", "{", "}"));
+        return jdbcTemplate.query(PRODUCT_FACETS, filterParams(queryText, filter).addValue("bounds", bounds),
+                        new FacetCountRowMapper(priceBounds)).stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Read-only transaction: the Postgres driver only honours the fetch size with autocommit off
+    @Override
+    @Transactional(readOnly = true)
+    public void streamProducts(String queryText, int limit, Consumer<ProductHit> consumer) {
+        String sql = PRODUCT_HITS + """
+            ORDER BY rank DESC, product_id DESC
+            LIMIT :limit
+        """;
+        MapSqlParameterSource params = rankingParams()
+                .addValue("q", queryText)
+                .addValue("limit", limit);
+        jdbcTemplate.query(sql, params, rs -> {
+            consumer.accept(ProductHitRowMapper.INSTANCE.mapRow(rs, 0));
+        });
     }
-}
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamStores(String queryText, int limit, Consumer<StoreHit> consumer) {
+        String sql = STORE_HITS + """
+            ORDER BY rank DESC, store_id DESC
+            LIMIT :limit
+        """;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("q", queryText)
+                .addValue("limit", limit);
+        jdbcTemplate.query(sql, params, rs -> {
+            consumer.accept(StoreHitRowMapper.INSTANCE.mapRow(rs, 0));
+        });
+    }
 
+    @Override
+    public List<ProductHit> findPopularProducts(int limit) {
+        // the precomputed score stands in for the text rank; rows come back in rank_position order
+        String sql = """
+            SELECT sp.product_id, sp.name, sp.attrs_text, sp.is_active, sp.stock, sp.category,
+                   sp.price, sp.seller_id, pp.score AS rank
+            FROM popular_products pp
+            JOIN search_products sp ON sp.product_id = pp.product_id
+            WHERE sp.is_active = TRUE
+            ORDER BY pp.rank_position
+            LIMIT :limit
+        """;
+        return jdbcTemplate.query(sql, new MapSqlParameterSource("limit", limit), ProductHitRowMapper.INSTANCE);
+    }
+
+    // TEXT mode keeps the plain ts_rank_cd order by neutralising both factors
+    private MapSqlParameterSource rankingParams() {
+        boolean blended = searchProperties.getRankingMode() == SearchProperties.RankingMode.BLENDED;
+        return new MapSqlParameterSource()
+                .addValue("popularityBoost", blended ? searchProperties.getPopularityBoost() : 0.0)
+                .addValue("outOfStockFactor", blended ? searchProperties.getOutOfStockFactor() : 1.0);
+    }
+
+    private static MapSqlParameterSource filterParams(String queryText, ProductFilter filter) {
+        return new MapSqlParameterSource()
+                .addValue("q", queryText)
+                .addValue("category", filter.getCategory())
+                .addValue("storeId", filter.getStoreId())
+                .addValue("minPrice", filter.getMinPrice())
+                .addValue("maxPrice", filter.getMaxPrice());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductHit> fuzzySearchProducts(String queryText, int limit, double threshold) {
+        applySimilarityThreshold(threshold);
+        return jdbcTemplate.query(PRODUCT_FUZZY_HITS, new MapSqlParameterSource()
+                .addValue("q", queryText)
+                .addValue("limit", limit), ProductHitRowMapper.INSTANCE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StoreHit> fuzzySearchStores(String queryText, int limit, double threshold) {
+        applySimilarityThreshold(threshold);
+        return jdbcTemplate.query(STORE_FUZZY_HITS, new MapSqlParameterSource()
+                .addValue("q", queryText)
+                .addValue("limit", limit), StoreHitRowMapper.INSTANCE);
+    }
+
+    // Transaction-local, so the pooled connection goes back with the server default
+    private void applySimilarityThreshold(double threshold) {
+        jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)",
+                new MapSqlParameterSource("threshold", Double.toString(threshold)), String.class);
+    }
+
+    // Read-only transaction: the Postgres driver only honours the fetch size with autocommit off
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachProductSuggestion(Consumer<Suggestion> consumer) {
+        String sql = "SELECT product_id, name, popularity FROM search_products WHERE is_active = TRUE";
+        jdbcTemplate.query(sql, new MapSqlParameterSource(), rs -> {
+            consumer.accept(new Suggestion(rs.getObject("product_id", UUID.class), Suggestion.Type.PRODUCT,
+                    rs.getString("name"), rs.getLong("popularity")));
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachStoreSuggestion(Consumer<Suggestion> consumer) {
+        String sql = "SELECT store_id, name FROM search_stores WHERE is_approved = TRUE";
+        jdbcTemplate.query(sql, new MapSqlParameterSource(), rs -> {
+            consumer.accept(new Suggestion(rs.getObject("store_id", UUID.class), Suggestion.Type.STORE,
+                    rs.getString("name"), 0L));
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.search_service.repository;
+
+import com.search_service.event.OrderCreatedEvent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface PopularityRepository {
+
+	/** Transaction-scoped guard so that only one instance runs the popularity job at a time. */
+	boolean tryLockRefresh();
+
+	void saveOrderItems(List<OrderCreatedEvent> orders);
+
+	void savePaidOrders(Collection<UUID> orderIds);
+
+	/** Adds {@code weight * quantity} of every not yet counted order line to its product; returns products touched. */
+	int applyOrderedSignals(long weight);
+
+	/** Same for lines whose order has been paid. */
+	int applyPaidSignals(long weight);
+
+	void refreshPopularProducts(int size);
+
+	/** Drops signals older than {@code retentionDays}; a payment arriving later than that is not counted. */
+	void purgeSignals(int retentionDays);
+}
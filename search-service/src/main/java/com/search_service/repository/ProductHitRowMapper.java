@@ -0,0 +1,31 @@
+package com.search_service.repository;
+
+import com.search_service.model.ProductHit;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Maps the product hit columns shared by the full-text, filtered and fuzzy queries.
+ */
+class ProductHitRowMapper implements RowMapper<ProductHit> {
+
+    static final ProductHitRowMapper INSTANCE = new ProductHitRowMapper();
+
+    @Override
+    public ProductHit mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return ProductHit.builder()
+                .productId(rs.getObject("product_id", UUID.class))
+                .name(rs.getString("name"))
+                .attrsText(rs.getString("attrs_text"))
+                .active(rs.getBoolean("is_active"))
+                .stock(rs.getInt("stock"))
+                .category(rs.getString("category"))
+                .price(rs.getBigDecimal("price"))
+                .sellerId(rs.getObject("seller_id", UUID.class))
+                .rank(rs.getFloat("rank"))
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.search_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Steps of a bulk rebuild of {@code search_products} through a shadow table.
+ */
+public interface ReindexRepository {
+
+	/**
+	 * (Re)creates an empty shadow table with the live columns but no indexes or triggers. Returns the
+	 * database clock at that point, which {@link #swap} later replays live writes from.
+	 */
+	LocalDateTime createShadowTable();
+
+	/**
+	 * Loads catalog products with {@code from <= id < to} ({@code to == null}: no upper bound) into the
+	 * shadow table, computing the tsvector and folded name in the same statement. Returns rows loaded.
+	 */
+	long loadRange(UUID from, UUID to);
+
+	/** Live index name to definition, including the primary key index. */
+	Map<String, String> liveIndexes();
+
+	/** Builds every live index on the shadow table under a temporary name. */
+	void createShadowIndexes(Map<String, String> liveIndexes);
+
+	/** Drops shadow rows whose product was deleted from the catalog while loading. */
+	int pruneDeleted();
+
+	/**
+	 * Replays live rows written since {@code loadStartedAt} into the shadow table and swaps it in,
+	 * all in one transaction.
+	 */
+	void swap(LocalDateTime loadStartedAt, Map<String, String> liveIndexes);
+}
@@ -0,0 +1,19 @@
+package com.search_service.repository;
+
+import com.search_service.model.ProductDocument;
+import com.search_service.model.StoreDocument;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface SearchIndexRepository {
+
+	void upsertProducts(List<ProductDocument> documents);
+
+	void deleteProducts(Collection<UUID> productIds);
+
+	void upsertStores(List<StoreDocument> documents);
+
+	void deleteStores(Collection<UUID> storeIds);
+}
@@ -1,13 +1,57 @@
 package com.search_service.repository;
 
+import com.search_service.model.FacetCount;
+import com.search_service.model.ProductFilter;
+import com.search_service.model.ProductHit;
+import com.search_service.model.StoreHit;
+import com.search_service.model.Suggestion;
+
+import java.math.BigDecimal;
 import java.util.List;
-import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface SearchRepository {
 
-	List<Map<String, Object>> searchProducts(String queryText, int limit, int offset);
+	List<ProductHit> searchProducts(String queryText, int limit, int offset);
 
-	List<Map<String, Object>> searchStores(String queryText, int limit, int offset);
-}
+	/**
+	 * Keyset variant: returns the hits ranked strictly after ({@code afterRank}, {@code afterId})
+	 * in {@code rank DESC, product_id DESC} order.
+	 */
+	List<ProductHit> searchProductsAfter(String queryText, int limit, float afterRank, UUID afterId);
+
+	List<StoreHit> searchStores(String queryText, int limit, int offset);
+
+	List<StoreHit> searchStoresAfter(String queryText, int limit, float afterRank, UUID afterId);
+
+	List<ProductHit> searchProductsFiltered(String queryText, ProductFilter filter, int limit, int offset);
+
+	/**
+	 * Category, price bucket and seller counts plus the total over all matching products, as rows of a
+	 * single {@code GROUPING SETS} query. The {@code g_*} columns tell which facet a row belongs to.
+	 */
+	List<FacetCount> productFacetCounts(String queryText, ProductFilter filter, List<BigDecimal> priceBounds);
 
+	/**
+	 * Top {@code limit} hits handed to {@code consumer} as they are read, in fetch-size chunks, for
+	 * responses too large to buffer.
+	 */
+	void streamProducts(String queryText, int limit, Consumer<ProductHit> consumer);
 
+	void streamStores(String queryText, int limit, Consumer<StoreHit> consumer);
+
+	/** Reads the precomputed {@code popular_products} list joined with the current product rows. */
+	List<ProductHit> findPopularProducts(int limit);
+
+	/** Trigram fallback for misspelled queries; {@code threshold} is the minimum word similarity (0..1). */
+	List<ProductHit> fuzzySearchProducts(String queryText, int limit, double threshold);
+
+	List<StoreHit> fuzzySearchStores(String queryText, int limit, double threshold);
+
+	/** Streams every active product as a suggestion source, row by row instead of building a result list. */
+	void forEachProductSuggestion(Consumer<Suggestion> consumer);
+
+	/** Streams every approved store as a suggestion source, row by row instead of building a result list. */
+	void forEachStoreSuggestion(Consumer<Suggestion> consumer);
+}
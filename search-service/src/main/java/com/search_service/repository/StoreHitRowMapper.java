@@ -0,0 +1,24 @@
+package com.search_service.repository;
+
+import com.search_service.model.StoreHit;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+class StoreHitRowMapper implements RowMapper<StoreHit> {
+
+    static final StoreHitRowMapper INSTANCE = new StoreHitRowMapper();
+
+    @Override
+    public StoreHit mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return StoreHit.builder()
+                .storeId(rs.getObject("store_id", UUID.class))
+                .name(rs.getString("name"))
+                .bio(rs.getString("bio"))
+                .approved(rs.getBoolean("is_approved"))
+                .rank(rs.getFloat("rank"))
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.search_service.service;
+
+import com.search_service.config.SearchProperties;
+import com.search_service.event.OrderCreatedEvent;
+import com.search_service.event.PaymentSucceededEvent;
+import com.search_service.repository.PopularityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Turns order and payment events into {@code search_products.popularity} and the precomputed
+ * {@code popular_products} list. Consumers only record signals; the scheduled job folds the
+ * not yet counted ones into popularity, so each run costs in proportion to new orders.
+ */
+@Slf4j
+@Service
+public class PopularityService {
+
+    private final PopularityRepository popularityRepository;
+    private final SearchProperties searchProperties;
+
+    public PopularityService(PopularityRepository popularityRepository, SearchProperties searchProperties) {
+        this.popularityRepository = popularityRepository;
+        this.searchProperties = searchProperties;
+    }
+
+    @Transactional
+    public void recordOrders(List<OrderCreatedEvent> events) {
+        List<OrderCreatedEvent> orders = events.stream()
+                .filter(event -> event.getOrderId() != null && event.getItems() != null)
+                .map(event -> new OrderCreatedEvent(event.getOrderId(), event.getItems().stream()
+                        .filter(item -> item.getProductId() != null && item.getQuantity() != null && item.getQuantity() > 0)
+                        .toList()))
+                .toList();
+        popularityRepository.saveOrderItems(orders);
+    }
+
+    @Transactional
+    public void recordPayments(List<PaymentSucceededEvent> events) {
+        Set<UUID> orderIds = new LinkedHashSet<>();
+        for (PaymentSucceededEvent event : events) {
+            if (event.getOrderId() != null && (event.getStatus() == null || "SUCCEEDED".equals(event.getStatus()))) {
+                orderIds.add(event.getOrderId());
+            }
+        }
+        popularityRepository.savePaidOrders(orderIds);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${search.popularity.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!popularityRepository.tryLockRefresh()) {
+            log.debug("[search] Popularity refresh already running on another instance");
+            return;
+        }
+        int ordered = popularityRepository.applyOrderedSignals(searchProperties.getOrderedWeight());
+        int paid = popularityRepository.applyPaidSignals(searchProperties.getPaidWeight());
+        popularityRepository.refreshPopularProducts(searchProperties.getPopularSize());
+        popularityRepository.purgeSignals(searchProperties.getSignalRetentionDays());
+        if (ordered > 0 || paid > 0) {
+            log.info("[search] Popularity refreshed: {} products from orders, {} from payments", ordered, paid);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.search_service.service;
+
+import com.search_service.config.SearchProperties;
+import com.search_service.model.ReindexStatus;
+import com.search_service.repository.ReindexRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuilds {@code search_products} from {@code catalog.products} without touching the live table
+ * until the end: primary-key ranges are loaded into a shadow table in parallel, its indexes are
+ * built once over the full data, and the shadow table is swapped in within a single transaction.
+ * Rows the Kafka indexer writes meanwhile are replayed during the swap.
+ */
+@Slf4j
+@Service
+public class ReindexService {
+
+    private final ReindexRepository reindexRepository;
+    private final SearchProperties searchProperties;
+    private final SearchResultCache resultCache;
+    private final SuggestionIndex suggestionIndex;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> new Thread(r, "search-reindex"));
+
+    private final AtomicInteger partitionsDone = new AtomicInteger();
+    private final AtomicLong rowsLoaded = new AtomicLong();
+    private volatile ReindexStatus status = ReindexStatus.builder().state(ReindexStatus.State.IDLE).build();
+
+    public ReindexService(ReindexRepository reindexRepository, SearchProperties searchProperties,
+                          SearchResultCache resultCache, SuggestionIndex suggestionIndex) {
+        this.reindexRepository = reindexRepository;
+        this.searchProperties = searchProperties;
+        this.resultCache = resultCache;
+        this.suggestionIndex = suggestionIndex;
+    }
+
+    /** Starts a reindex in the background; throws {@link IllegalStateException} if one is running. */
+    public synchronized ReindexStatus start() {
+        if (isRunning(status.getState())) {
+            throw new IllegalStateException("A reindex is already running");
+        }
+        int partitions = Math.max(1, searchProperties.getReindexPartitions());
+        partitionsDone.set(0);
+        rowsLoaded.set(0);
+        status = ReindexStatus.builder()
+                .state(ReindexStatus.State.LOADING)
+                .startedAt(Instant.now())
+                .partitionsTotal(partitions)
+                .build();
+        runner.execute(() -> run(partitions));
+        return status();
+    }
+
+    public ReindexStatus status() {
+        ReindexStatus current = status;
+        return current.toBuilder()
+                .partitionsDone(isRunning(current.getState()) ? partitionsDone.get() : current.getPartitionsDone())
+                .rowsLoaded(isRunning(current.getState()) ? rowsLoaded.get() : current.getRowsLoaded())
+                .build();
+    }
+
+    private void run(int partitions) {
+        try {
+            LocalDateTime loadStartedAt = reindexRepository.createShadowTable();
+            load(partitionBounds(partitions));
+
+            transition(ReindexStatus.State.INDEXING);
+            Map<String, String> liveIndexes = reindexRepository.liveIndexes();
+            reindexRepository.createShadowIndexes(liveIndexes);
+            int pruned = reindexRepository.pruneDeleted();
+
+            transition(ReindexStatus.State.SWAPPING);
+            reindexRepository.swap(loadStartedAt, liveIndexes);
+
+            finish(ReindexStatus.State.SUCCEEDED, null);
+            log.info("[search] Reindex finished: {} rows in {} partitions, {} pruned", rowsLoaded.get(), partitions, pruned);
+        } catch (Exception e) {
+            log.error("[search] Reindex failed, live index left unchanged", e);
+            finish(ReindexStatus.State.FAILED, e.getMessage());
+            return;
+        }
+        resultCache.invalidateAll();
+        suggestionIndex.rebuild();
+    }
+
+    private void load(List<UUID> bounds) throws InterruptedException, ExecutionException {
+        int parallelism = Math.max(1, searchProperties.getReindexParallelism());
+        try (ExecutorService workers = Executors.newFixedThreadPool(parallelism)) {
+            List<Future<?>> loads = new ArrayList<>(bounds.size());
+            for (int i = 0; i < bounds.size(); i++) {
+                UUID from = bounds.get(i);
+                UUID to = i + 1 < bounds.size() ? bounds.get(i + 1) : null;
+                loads.add(workers.submit(() -> {
+                    rowsLoaded.addAndGet(reindexRepository.loadRange(from, to));
+                    partitionsDone.incrementAndGet();
+                }));
+            }
+            for (Future<?> partition : loads) {
+                partition.get();
+            }
+        }
+    }
+
+    /**
+     * Lower bounds of {@code partitions} equal slices of the UUID space, ordered as Postgres compares
+     * uuids (unsigned, most significant byte first). Random v4 ids spread evenly across them.
+     */
+    static List<UUID> partitionBounds(int partitions) {
+        BigInteger space = BigInteger.ONE.shiftLeft(64);
+        List<UUID> bounds = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            long high = space.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(partitions)).longValue();
+            bounds.add(new UUID(high, 0L));
+        }
+        return bounds;
+    }
+
+    private synchronized void transition(ReindexStatus.State state) {
+        status = status.toBuilder().state(state).build();
+    }
+
+    private synchronized void finish(ReindexStatus.State state, String error) {
+        status = status.toBuilder()
+                .state(state)
+                .finishedAt(Instant.now())
+                .partitionsDone(partitionsDone.get())
+                .rowsLoaded(rowsLoaded.get())
+                .error(error)
+                .build();
+    }
+
+    private static boolean isRunning(ReindexStatus.State state) {
+        return state == ReindexStatus.State.LOADING
+                || state == ReindexStatus.State.INDEXING
+                || state == ReindexStatus.State.SWAPPING;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+    }
+}
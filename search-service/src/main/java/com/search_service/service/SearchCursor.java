@@ -0,0 +1,43 @@
+package com.search_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset position for search results: the (rank, id) of the last hit a client has seen.
+ * The rank is kept as a float so that it compares exactly against Postgres' {@code real} ts_rank_cd.
+ */
+public final class SearchCursor {
+
+    private final float rank;
+    private final UUID id;
+
+    public SearchCursor(float rank, UUID id) {
+        this.rank = rank;
+        this.id = id;
+    }
+
+    public float getRank() {
+        return rank;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = Float.toString(rank) + ':' + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return new SearchCursor(Float.parseFloat(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid search cursor", e);
+        }
+    }
+}
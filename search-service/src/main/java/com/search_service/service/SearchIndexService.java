@@ -0,0 +1,113 @@
+package com.search_service.service;
+
+import com.search_service.event.ProductEvent;
+import com.search_service.event.SearchIndexChangedEvent;
+import com.search_service.event.StoreEvent;
+import com.search_service.model.ProductDocument;
+import com.search_service.model.StoreDocument;
+import com.search_service.repository.SearchIndexRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies product and store change events to the search tables. Each call handles one consumer
+ * poll: events are collapsed to the latest state per id and flushed in a single transaction.
+ */
+@Slf4j
+@Service
+public class SearchIndexService {
+
+    private final SearchIndexRepository searchIndexRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SearchIndexService(SearchIndexRepository searchIndexRepository, ApplicationEventPublisher eventPublisher) {
+        this.searchIndexRepository = searchIndexRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public void applyProductEvents(List<ProductEvent> events) {
+        Map<UUID, ProductEvent> latest = new LinkedHashMap<>();
+        for (ProductEvent event : events) {
+            if (event.getProductId() == null || event.getEventType() == null) {
+                log.warn("[search] Skipping product event without id or type: {}", event);
+                continue;
+            }
+            latest.put(event.getProductId(), event);
+        }
+
+        List<ProductDocument> upserts = new ArrayList<>();
+        List<UUID> deletes = new ArrayList<>();
+        for (ProductEvent event : latest.values()) {
+            if (event.getEventType() == ProductEvent.EventType.PRODUCT_DELETED) {
+                deletes.add(event.getProductId());
+            } else {
+                upserts.add(toDocument(event));
+            }
+        }
+
+        searchIndexRepository.upsertProducts(upserts);
+        searchIndexRepository.deleteProducts(deletes);
+        eventPublisher.publishEvent(SearchIndexChangedEvent.products(upserts, deletes));
+        log.info("[search] Indexed {} product events: {} upserts, {} deletes", events.size(), upserts.size(), deletes.size());
+    }
+
+    @Transactional
+    public void applyStoreEvents(List<StoreEvent> events) {
+        Map<UUID, StoreEvent.Store> latest = new LinkedHashMap<>();
+        for (StoreEvent event : events) {
+            if (event.getStore() == null || event.getStore().getId() == null) {
+                log.warn("[search] Skipping store event without store id: {}", event);
+                continue;
+            }
+            latest.put(event.getStore().getId(), event.getStore());
+        }
+
+        List<StoreDocument> upserts = latest.values().stream()
+                .map(store -> StoreDocument.builder()
+                        .storeId(store.getId())
+                        .name(store.getName() != null ? store.getName() : "")
+                        .bio(store.getBio())
+                        .approved(Boolean.TRUE.equals(store.getIsApproved()))
+                        .build())
+                .toList();
+
+        searchIndexRepository.upsertStores(upserts);
+        eventPublisher.publishEvent(SearchIndexChangedEvent.stores(upserts));
+        log.info("[search] Indexed {} store events: {} upserts", events.size(), upserts.size());
+    }
+
+    private ProductDocument toDocument(ProductEvent event) {
+        return ProductDocument.builder()
+                .productId(event.getProductId())
+                .name(event.getName() != null ? event.getName() : "")
+                .attrsText(joinNonBlank(event.getCategory(), event.getDescription()))
+                .active(event.getIsActive() == null || event.getIsActive())
+                .stock(event.getQuantity() != null ? event.getQuantity() : 0)
+                .category(event.getCategory() != null && !event.getCategory().isBlank() ? event.getCategory().trim() : null)
+                .price(event.getPrice())
+                .sellerId(event.getSellerId())
+                .build();
+    }
+
+    private static String joinNonBlank(String... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.isBlank()) {
+                if (!sb.isEmpty()) {
+                    sb.append(' ');
+                }
+                sb.append(part.trim());
+            }
+        }
+        return sb.isEmpty() ? null : sb.toString();
+    }
+}
@@ -0,0 +1,166 @@
+package com.search_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.search_service.config.SearchProperties;
+import com.search_service.event.SearchIndexChangedEvent;
+import com.search_service.model.ProductDocument;
+import com.search_service.model.SearchHit;
+import com.search_service.model.SearchPage;
+import com.search_service.model.StoreDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of search pages keyed on (query, type, page, cursor, limit).
+ *
+ * <p>Entries are dropped selectively when the indexer commits a batch: an entry goes if it lists a
+ * changed document, or if one of its query terms occurs in the new text of an upserted document
+ * (that document may now match). Anything this misses, such as a new typo-only fuzzy match, is
+ * bounded by the TTL. Hit, miss and eviction counts are published as {@code cache.*} metrics
+ * with {@code cache=search-results}.
+ */
+@Component
+public class SearchResultCache {
+
+    private final Cache<Key, Entry> cache;
+    private final Map<UUID, Set<Key>> keysByDocument = new ConcurrentHashMap<>();
+    private final Map<String, Set<Key>> keysByTerm = new ConcurrentHashMap<>();
+    private final Counter invalidations;
+
+    public SearchResultCache(SearchProperties searchProperties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(searchProperties.getCacheMaxEntries())
+                .expireAfterWrite(searchProperties.getCacheTtl())
+                .executor(Runnable::run)
+                .removalListener(this::unlink)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "search-results");
+        this.invalidations = Counter.builder("search.cache.invalidations")
+                .description("Search result cache entries dropped because indexed documents changed")
+                .register(meterRegistry);
+    }
+
+    public SearchPage get(String query, String type, int page, String cursor, int limit, Supplier<SearchPage> loader) {
+        Key key = new Key(query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT), type, page,
+                cursor != null ? cursor : "", limit);
+        return cache.get(key, k -> link(k, loader.get())).page;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIndexChanged(SearchIndexChangedEvent event) {
+        Set<Key> stale = new HashSet<>();
+        for (UUID productId : event.getDeletedProducts()) {
+            collect(stale, keysByDocument.get(productId));
+        }
+        for (ProductDocument doc : event.getUpsertedProducts()) {
+            collect(stale, keysByDocument.get(doc.getProductId()));
+            collectByTerms(stale, doc.getName() + " " + (doc.getAttrsText() != null ? doc.getAttrsText() : ""));
+        }
+        for (StoreDocument doc : event.getUpsertedStores()) {
+            collect(stale, keysByDocument.get(doc.getStoreId()));
+            collectByTerms(stale, doc.getName() + " " + (doc.getBio() != null ? doc.getBio() : ""));
+        }
+        if (!stale.isEmpty()) {
+            cache.invalidateAll(stale);
+            invalidations.increment(stale.size());
+        }
+    }
+
+    /** Drops everything, e.g. after the whole index was rebuilt. */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private Entry link(Key key, SearchPage page) {
+        Entry entry = new Entry(page, documentIds(page), terms(key.getQuery()));
+        for (UUID id : entry.documentIds) {
+            keysByDocument.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        for (String term : entry.terms) {
+            keysByTerm.computeIfAbsent(term, k -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        return entry;
+    }
+
+    private void unlink(Key key, Entry entry, RemovalCause cause) {
+        if (key == null || entry == null) {
+            return;
+        }
+        for (UUID id : entry.documentIds) {
+            keysByDocument.computeIfPresent(id, (k, keys) -> removeKey(keys, key));
+        }
+        for (String term : entry.terms) {
+            keysByTerm.computeIfPresent(term, (k, keys) -> removeKey(keys, key));
+        }
+    }
+
+    // Returning null from computeIfPresent drops the emptied set
+    private static Set<Key> removeKey(Set<Key> keys, Key key) {
+        keys.remove(key);
+        return keys.isEmpty() ? null : keys;
+    }
+
+    private void collectByTerms(Set<Key> stale, String text) {
+        for (String term : terms(text)) {
+            collect(stale, keysByTerm.get(term));
+        }
+    }
+
+    private static void collect(Set<Key> stale, Collection<Key> keys) {
+        if (keys != null) {
+            stale.addAll(keys);
+        }
+    }
+
+    private static Set<UUID> documentIds(SearchPage page) {
+        Set<UUID> ids = new HashSet<>();
+        for (SearchHit hit : page.getItems()) {
+            ids.add(hit.documentId());
+        }
+        return ids;
+    }
+
+    // Same folding as the suggestion index, so "Ayakkabı" in a product name matches the query "ayakkabi"
+    private static Set<String> terms(String text) {
+        String normalized = SuggestionIndex.normalize(text);
+        return normalized.isEmpty() ? Set.of() : new HashSet<>(Arrays.asList(normalized.split(" ")));
+    }
+
+    @Value
+    private static class Key {
+        String query;
+        String type;
+        int page;
+        String cursor;
+        int limit;
+    }
+
+    private static final class Entry {
+        final SearchPage page;
+        final Set<UUID> documentIds;
+        final Set<String> terms;
+
+        Entry(SearchPage page, Set<UUID> documentIds, Set<String> terms) {
+            this.page = page;
+            this.documentIds = documentIds;
+            this.terms = terms;
+        }
+    }
+}
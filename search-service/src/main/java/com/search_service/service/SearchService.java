@@ -1,46 +1,236 @@
 package com.search_service.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.search_service.config.SearchProperties;
+import com.search_service.model.FacetCount;
+import com.search_service.model.FacetValue;
+import com.search_service.model.FacetedSearchResult;
+import com.search_service.model.ProductFilter;
+import com.search_service.model.ProductHit;
+import com.search_service.model.SearchFacets;
+import com.search_service.model.SearchHit;
+import com.search_service.model.SearchPage;
+import com.search_service.model.Suggestion;
 import com.search_service.repository.SearchRepository;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 public class SearchService {
 
     private final SearchRepository searchRepository;
     private final SearchProperties searchProperties;
+    private final SuggestionIndex suggestionIndex;
+    private final SearchResultCache resultCache;
+    private final ObjectMapper objectMapper;
 
-    public SearchService(SearchRepository searchRepository, SearchProperties searchProperties) {
+    public SearchService(SearchRepository searchRepository, SearchProperties searchProperties,
+                         SuggestionIndex suggestionIndex, SearchResultCache resultCache, ObjectMapper objectMapper) {
         this.searchRepository = searchRepository;
         this.searchProperties = searchProperties;
+        this.suggestionIndex = suggestionIndex;
+        this.resultCache = resultCache;
+        this.objectMapper = objectMapper;
     }
 
-    public List<Map<String, Object>> search(String rawQuery, String rawType, int page) {
+    /**
+     * Runs a full-text search. When {@code cursor} is given the page is located by seeking past it,
+     * otherwise {@code page} is used as a plain offset page number.
+     *
+     * <p>If the first page comes back short, trigram matches on the name are appended so that a typo
+     * still finds something. Fallback hits are never paged: the cursor only covers full-text hits.
+     * Finished pages go through {@link SearchResultCache}.
+     */
+    public SearchPage search(String rawQuery, String rawType, int page, String cursor) {
         String query = rawQuery == null ? "" : rawQuery.trim();
         if (query.isEmpty()) {
-            return List.of();
+            return SearchPage.empty();
         }
 
-        int safePage = Math.max(0, page);
         int limit = Math.min(Math.max(1, searchProperties.getDefaultLimit()), searchProperties.getMaxLimit());
-        int offset = safePage * limit;
+        String type = rawType == null ? "product" : rawType.toLowerCase(Locale.ROOT);
+        return resultCache.get(query, type, page, cursor, limit, () -> load(query, type, page, cursor, limit));
+    }
+
+    private SearchPage load(String query, String type, int page, String cursor, int limit) {
+        SearchCursor after = cursor == null || cursor.isBlank() ? null : SearchCursor.decode(cursor);
+
+        boolean products = isProductType(type);
+        List<? extends SearchHit> hits;
+        if (products) {
+            hits = after != null
+                    ? searchRepository.searchProductsAfter(query, limit, after.getRank(), after.getId())
+                    : searchRepository.searchProducts(query, limit, offset(page, limit));
+        } else {
+            hits = after != null
+                    ? searchRepository.searchStoresAfter(query, limit, after.getRank(), after.getId())
+                    : searchRepository.searchStores(query, limit, offset(page, limit));
+        }
+
+        String next = nextCursor(hits, limit);
+        if (after == null && page <= 0 && hits.size() < searchProperties.getFuzzyMinHits()) {
+            double threshold = searchProperties.getFuzzyThreshold();
+            hits = withFuzzyHits(hits, products
+                    ? searchRepository.fuzzySearchProducts(query, limit, threshold)
+                    : searchRepository.fuzzySearchStores(query, limit, threshold), limit);
+        }
+        return new SearchPage(hits, next);
+    }
+
+    private static List<? extends SearchHit> withFuzzyHits(List<? extends SearchHit> hits,
+                                                           List<? extends SearchHit> fuzzy, int limit) {
+        if (fuzzy.isEmpty()) {
+            return hits;
+        }
 
+        Set<UUID> seen = new HashSet<>();
+        List<SearchHit> merged = new ArrayList<>(limit);
+        for (SearchHit hit : hits) {
+            seen.add(hit.documentId());
+            merged.add(hit);
+        }
+        for (SearchHit hit : fuzzy) {
+            if (merged.size() == limit) {
+                break;
+            }
+            if (seen.add(hit.documentId())) {
+                merged.add(hit);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Writes the top {@code limit} hits as a JSON array while they are read from the database, so
+     * neither the rows nor the response are held in memory. Bypasses the result cache.
+     */
+    public void streamSearch(String rawQuery, String rawType, int limit, OutputStream out) throws IOException {
+        String query = rawQuery == null ? "" : rawQuery.trim();
         String type = rawType == null ? "product" : rawType.toLowerCase(Locale.ROOT);
-        switch (type) {
+        boolean products = isProductType(type);
+        int size = Math.min(Math.max(1, limit), searchProperties.getStreamMaxLimit());
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartArray();
+            if (!query.isEmpty()) {
+                Consumer<SearchHit> writer = hit -> {
+                    try {
+                        json.writeObject(hit);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                };
+                if (products) {
+                    searchRepository.streamProducts(query, size, writer::accept);
+                } else {
+                    searchRepository.streamStores(query, size, writer::accept);
+                }
+            }
+            json.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Product search with facet counts. Items are paged by offset; the counts cover every hit that
+     * matches the query and the current filter, so a selected facet narrows the others.
+     */
+    public FacetedSearchResult facetedSearch(String rawQuery, ProductFilter filter, int page) {
+        String query = rawQuery == null ? "" : rawQuery.trim();
+        if (query.isEmpty()) {
+            return new FacetedSearchResult(List.of(), 0, SearchFacets.empty());
+        }
+
+        int limit = Math.min(Math.max(1, searchProperties.getDefaultLimit()), searchProperties.getMaxLimit());
+        List<BigDecimal> bounds = searchProperties.getPriceBuckets();
+        List<FacetCount> rows = searchRepository.productFacetCounts(query, filter, bounds);
+
+        long total = 0;
+        List<FacetValue> categories = new ArrayList<>();
+        List<FacetValue> priceRanges = new ArrayList<>();
+        List<FacetValue> stores = new ArrayList<>();
+        for (FacetCount row : rows) {
+            switch (row.getFacet()) {
+                case CATEGORY -> categories.add(row.getValue());
+                case PRICE_RANGE -> priceRanges.add(row.getValue());
+                case STORE -> stores.add(row.getValue());
+                case TOTAL -> total = row.getValue().getCount();
+            }
+        }
+
+        int facetLimit = Math.max(1, searchProperties.getFacetLimit());
+        priceRanges.sort(Comparator.comparing(FacetValue::getFrom));
+        SearchFacets facets = new SearchFacets(top(categories, facetLimit), priceRanges, top(stores, facetLimit));
+        List<ProductHit> items = total == 0
+                ? List.of()
+                : searchRepository.searchProductsFiltered(query, filter, limit, offset(page, limit));
+        return new FacetedSearchResult(items, total, facets);
+    }
+
+    /**
+     * Homepage "popular products" strip, read from the list the popularity job precomputes.
+     */
+    public List<ProductHit> popular(Integer limit) {
+        int size = limit == null
+                ? searchProperties.getDefaultLimit()
+                : Math.min(Math.max(1, limit), searchProperties.getMaxLimit());
+        return searchRepository.findPopularProducts(size);
+    }
+
+    /**
+     * Typeahead lookup served from the in-memory {@link SuggestionIndex}; never touches the database.
+     */
+    public List<Suggestion> suggest(String prefix, Integer limit) {
+        int max = Math.max(1, searchProperties.getSuggestLimit());
+        int size = limit == null ? max : Math.min(Math.max(1, limit), max);
+        return suggestionIndex.suggest(prefix, size);
+    }
+
+    private static List<FacetValue> top(List<FacetValue> values, int limit) {
+        return values.stream()
+                .sorted(Comparator.comparingLong(FacetValue::getCount).reversed()
+                        .thenComparing(FacetValue::getValue))
+                .limit(limit)
+                .toList();
+    }
+
+    /** Validates the {@code type} parameter; throws so callers can reject it before writing a response. */
+    public static boolean isProductType(String type) {
+        switch (type == null ? "product" : type.toLowerCase(Locale.ROOT)) {
             case "product":
             case "products":
-                return searchRepository.searchProducts(query, limit, offset);
+                return true;
             case "store":
             case "stores":
-                return searchRepository.searchStores(query, limit, offset);
+                return false;
             default:
-                throw new IllegalArgumentException("Invalid search type: " + rawType);
+                throw new IllegalArgumentException("Invalid search type: " + type);
         }
     }
-}
 
+    private static int offset(int page, int limit) {
+        return Math.max(0, page) * limit;
+    }
 
+    private static String nextCursor(List<? extends SearchHit> hits, int limit) {
+        if (hits.size() < limit) {
+            return null;
+        }
+        SearchHit last = hits.get(hits.size() - 1);
+        return new SearchCursor(last.getRank(), last.documentId()).encode();
+    }
+}
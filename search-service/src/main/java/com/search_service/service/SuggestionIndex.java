@@ -0,0 +1,291 @@
+package com.search_service.service;
+
+import com.search_service.config.SearchProperties;
+import com.search_service.event.SearchIndexChangedEvent;
+import com.search_service.model.ProductDocument;
+import com.search_service.model.StoreDocument;
+import com.search_service.model.Suggestion;
+import com.search_service.repository.SearchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index (a character trie) over product and store names for typeahead.
+ *
+ * <p>Every name is indexed under each of its word starts, so "iph" finds "Apple iPhone 15" and
+ * "apple iph" still matches the full name. Each node keeps the top entries of its subtree by
+ * popularity, making a lookup a walk of the prefix length with no sorting at query time.
+ *
+ * <p>Readers never lock: children maps are concurrent and a node's top list is replaced as a whole.
+ * Writers are serialised on the index monitor.
+ */
+@Slf4j
+@Component
+public class SuggestionIndex {
+
+    // Deeper prefixes are answered from the node at this depth and filtered on the full name
+    static final int MAX_KEY_LENGTH = 24;
+    private static final int MAX_KEYS_PER_NAME = 8;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingLong((Entry e) -> e.suggestion.getPopularity()).reversed()
+            .thenComparingInt(e -> e.normalizedName.length())
+            .thenComparing(e -> e.normalizedName);
+
+    private final SearchRepository searchRepository;
+    private final int capacity;
+
+    private volatile Node root = new Node();
+    private Map<UUID, Entry> entries = new HashMap<>();
+
+    public SuggestionIndex(SearchRepository searchRepository, SearchProperties searchProperties) {
+        this.searchRepository = searchRepository;
+        this.capacity = Math.max(1, searchProperties.getSuggestLimit());
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        boolean truncated = key.length() > MAX_KEY_LENGTH;
+        Node node = root;
+        for (int i = 0; i < Math.min(key.length(), MAX_KEY_LENGTH) && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        List<Suggestion> result = new ArrayList<>(Math.min(limit, capacity));
+        for (Entry entry : node.top) {
+            if (truncated && !entry.normalizedName.contains(key)) {
+                continue;
+            }
+            result.add(entry.suggestion);
+            if (result.size() == limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${search.suggest.rebuild-interval-ms:900000}",
+            fixedDelayString = "${search.suggest.rebuild-interval-ms:900000}")
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        Node newRoot = new Node();
+        Map<UUID, Entry> newEntries = new HashMap<>();
+        try {
+            searchRepository.forEachProductSuggestion(s -> addTerminals(newRoot, newEntries, s));
+            searchRepository.forEachStoreSuggestion(s -> addTerminals(newRoot, newEntries, s));
+        } catch (RuntimeException e) {
+            log.error("[search] Suggestion index rebuild failed, keeping the current index", e);
+            return;
+        }
+        computeTops(newRoot);
+        root = newRoot;
+        entries = newEntries;
+        log.info("[search] Suggestion index rebuilt with {} entries in {} ms",
+                newEntries.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onIndexChanged(SearchIndexChangedEvent event) {
+        for (UUID productId : event.getDeletedProducts()) {
+            remove(productId);
+        }
+        for (ProductDocument doc : event.getUpsertedProducts()) {
+            if (doc.isActive()) {
+                Entry previous = entries.get(doc.getProductId());
+                long popularity = previous != null ? previous.suggestion.getPopularity() : 0L;
+                put(new Suggestion(doc.getProductId(), Suggestion.Type.PRODUCT, doc.getName(), popularity));
+            } else {
+                remove(doc.getProductId());
+            }
+        }
+        for (StoreDocument doc : event.getUpsertedStores()) {
+            if (doc.isApproved()) {
+                put(new Suggestion(doc.getStoreId(), Suggestion.Type.STORE, doc.getName(), 0L));
+            } else {
+                remove(doc.getStoreId());
+            }
+        }
+    }
+
+    public synchronized void put(Suggestion suggestion) {
+        remove(suggestion.getId());
+        Entry entry = new Entry(suggestion);
+        if (entry.keys.isEmpty()) {
+            return;
+        }
+        entries.put(suggestion.getId(), entry);
+        for (String key : entry.keys) {
+            Deque<Node> path = walk(root, key, true);
+            path.peekLast().terminals.put(suggestion.getId(), entry);
+            refreshPath(path, key);
+        }
+    }
+
+    public synchronized void remove(UUID id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String key : entry.keys) {
+            Deque<Node> path = walk(root, key, false);
+            if (path.size() != key.length() + 1) {
+                continue;
+            }
+            path.peekLast().terminals.remove(id);
+            refreshPath(path, key);
+        }
+    }
+
+    private void addTerminals(Node target, Map<UUID, Entry> index, Suggestion suggestion) {
+        Entry entry = new Entry(suggestion);
+        if (entry.keys.isEmpty()) {
+            return;
+        }
+        index.put(suggestion.getId(), entry);
+        for (String key : entry.keys) {
+            walk(target, key, true).peekLast().terminals.put(suggestion.getId(), entry);
+        }
+    }
+
+    /** Returns the nodes from the root down to the end of {@code key}; stops early if a node is missing. */
+    private static Deque<Node> walk(Node from, String key, boolean create) {
+        Deque<Node> path = new ArrayDeque<>(key.length() + 1);
+        Node node = from;
+        path.addLast(node);
+        for (int i = 0; i < key.length(); i++) {
+            Node next = create
+                    ? node.children.computeIfAbsent(key.charAt(i), c -> new Node())
+                    : node.children.get(key.charAt(i));
+            if (next == null) {
+                break;
+            }
+            path.addLast(next);
+            node = next;
+        }
+        return path;
+    }
+
+    /** Recomputes top lists bottom-up along a path and prunes nodes left empty. */
+    private void refreshPath(Deque<Node> path, String key) {
+        int depth = path.size() - 1;
+        Node child = null;
+        while (!path.isEmpty()) {
+            Node node = path.pollLast();
+            if (child != null && child.isEmpty()) {
+                node.children.remove(key.charAt(depth));
+            }
+            node.top = topOf(node);
+            child = node;
+            depth--;
+        }
+    }
+
+    private void computeTops(Node node) {
+        for (Node child : node.children.values()) {
+            computeTops(child);
+        }
+        node.top = topOf(node);
+    }
+
+    // A subtree's best entries are always among its own terminals and its children's top lists
+    private List<Entry> topOf(Node node) {
+        PriorityQueue<Entry> heap = new PriorityQueue<>(capacity + 1, RANKING.reversed());
+        Set<UUID> seen = new HashSet<>();
+        offerAll(heap, seen, node.terminals.values());
+        for (Node child : node.children.values()) {
+            offerAll(heap, seen, child.top);
+        }
+        List<Entry> top = new ArrayList<>(heap);
+        top.sort(RANKING);
+        return List.copyOf(top);
+    }
+
+    private void offerAll(PriorityQueue<Entry> heap, Set<UUID> seen, Collection<Entry> candidates) {
+        for (Entry entry : candidates) {
+            if (!seen.add(entry.suggestion.getId())) {
+                continue;
+            }
+            heap.offer(entry);
+            if (heap.size() > capacity) {
+                heap.poll();
+            }
+        }
+    }
+
+    /** Lowercases and folds Turkish and other accented letters to ASCII, mirroring {@code unaccent}. */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = text.replace('ı', 'i').replace('İ', 'i');
+        folded = COMBINING_MARKS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static final class Node {
+        final Map<Character, Node> children = new ConcurrentHashMap<>();
+        // Entries whose key ends exactly here; only touched by writers
+        final Map<UUID, Entry> terminals = new HashMap<>();
+        volatile List<Entry> top = List.of();
+
+        boolean isEmpty() {
+            return children.isEmpty() && terminals.isEmpty();
+        }
+    }
+
+    private static final class Entry {
+        final Suggestion suggestion;
+        final String normalizedName;
+        final Set<String> keys;
+
+        Entry(Suggestion suggestion) {
+            this.suggestion = suggestion;
+            this.normalizedName = normalize(suggestion.getName());
+            this.keys = keysOf(normalizedName);
+        }
+
+        private static Set<String> keysOf(String normalizedName) {
+            Set<String> keys = new HashSet<>();
+            int start = 0;
+            while (start < normalizedName.length() && keys.size() < MAX_KEYS_PER_NAME) {
+                keys.add(normalizedName.substring(start, Math.min(normalizedName.length(), start + MAX_KEY_LENGTH)));
+                int space = normalizedName.indexOf(' ', start);
+                if (space < 0) {
+                    break;
+                }
+                start = space + 1;
+            }
+            return keys;
+        }
+    }
+}
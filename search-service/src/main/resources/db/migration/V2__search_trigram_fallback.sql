@@ -0,0 +1,26 @@
+-- Accent-folded, lowercased names for the trigram fallback search.
+-- unaccent() is not IMMUTABLE and cannot back an expression index, so the
+-- folded value is stored and kept in sync by the existing tsv triggers.
+ALTER TABLE search.search_products ADD COLUMN IF NOT EXISTS name_folded TEXT;
+ALTER TABLE search.search_stores   ADD COLUMN IF NOT EXISTS name_folded TEXT;
+
+CREATE OR REPLACE FUNCTION search.update_sp_tsv() RETURNS trigger AS $$
+BEGIN
+  NEW.tsv := to_tsvector('simple', unaccent(coalesce(NEW.name,'') || ' ' || coalesce(NEW.attrs_text,'')));
+  NEW.name_folded := lower(unaccent(NEW.name));
+  RETURN NEW;
+END; $$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION search.update_ss_tsv() RETURNS trigger AS $$
+BEGIN
+  NEW.tsv := to_tsvector('simple', unaccent(coalesce(NEW.name,'') || ' ' || coalesce(NEW.bio,'')));
+  NEW.name_folded := lower(unaccent(NEW.name));
+  RETURN NEW;
+END; $$ LANGUAGE plpgsql;
+
+-- Backfill existing rows through the triggers
+UPDATE search.search_products SET name = name WHERE name_folded IS NULL;
+UPDATE search.search_stores   SET name = name WHERE name_folded IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_sp_name_trgm ON search.search_products USING GIN (name_folded gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_ss_name_trgm ON search.search_stores  USING GIN (name_folded gin_trgm_ops);
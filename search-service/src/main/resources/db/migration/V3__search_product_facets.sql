@@ -0,0 +1,8 @@
+-- Facet dimensions for product search, filled by the indexer from product.events
+ALTER TABLE search.search_products ADD COLUMN IF NOT EXISTS category TEXT;
+ALTER TABLE search.search_products ADD COLUMN IF NOT EXISTS price NUMERIC(12,2);
+ALTER TABLE search.search_products ADD COLUMN IF NOT EXISTS seller_id UUID;
+
+-- Facet filters narrow the full-text hits, these serve the browse case with a short query
+CREATE INDEX IF NOT EXISTS idx_sp_active_category ON search.search_products(category) WHERE is_active = TRUE;
+CREATE INDEX IF NOT EXISTS idx_sp_active_seller   ON search.search_products(seller_id) WHERE is_active = TRUE;
@@ -0,0 +1,23 @@
+-- Purchase signals feeding search_products.popularity and popular_products.
+-- Rows are counted once per signal by the popularity job, the *_counted flags make it incremental.
+CREATE TABLE IF NOT EXISTS search.order_item_signals (
+  order_id UUID NOT NULL,
+  product_id UUID NOT NULL,
+  quantity INT NOT NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+  ordered_counted BOOLEAN NOT NULL DEFAULT FALSE,
+  paid_counted BOOLEAN NOT NULL DEFAULT FALSE,
+  PRIMARY KEY (order_id, product_id)
+);
+CREATE INDEX IF NOT EXISTS idx_ois_uncounted ON search.order_item_signals(order_id) WHERE NOT ordered_counted;
+CREATE INDEX IF NOT EXISTS idx_ois_unpaid    ON search.order_item_signals(order_id) WHERE NOT paid_counted;
+
+-- Payments may be consumed before their order, so they are kept apart and joined by the job
+CREATE TABLE IF NOT EXISTS search.paid_orders (
+  order_id UUID PRIMARY KEY,
+  paid_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Top-N by popularity for popular_products and the blended ranking
+CREATE INDEX IF NOT EXISTS idx_sp_active_popularity
+  ON search.search_products(popularity DESC) WHERE is_active = TRUE;
@@ -0,0 +1,12 @@
+-- Last write time of an index row; a bulk reindex replays rows written while it was loading
+ALTER TABLE search.search_products ADD COLUMN IF NOT EXISTS indexed_at TIMESTAMP NOT NULL DEFAULT NOW();
+
+CREATE OR REPLACE FUNCTION search.update_sp_tsv() RETURNS trigger AS $$
+BEGIN
+  NEW.tsv := to_tsvector('simple', unaccent(coalesce(NEW.name,'') || ' ' || coalesce(NEW.attrs_text,'')));
+  NEW.name_folded := lower(unaccent(NEW.name));
+  NEW.indexed_at := NOW();
+  RETURN NEW;
+END; $$ LANGUAGE plpgsql;
+
+CREATE INDEX IF NOT EXISTS idx_sp_indexed_at ON search.search_products(indexed_at);
@@ -0,0 +1,114 @@
+package com.search_service.repository;
+
+import com.search_service.model.FacetCount;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FacetCountRowMapperTest {
+
+    private static final List<BigDecimal> BOUNDS = List.of(
+            new BigDecimal("250"), new BigDecimal("500"), new BigDecimal("5000"));
+
+    @Mock
+    private ResultSet rs;
+
+    private final FacetCountRowMapper mapper = new FacetCountRowMapper(BOUNDS);
+
+    @Test
+    void shouldMapBucketRowToPriceRange() throws Exception {
+        // Given
+        grouping(1, 0, 1, 4);
+        when(rs.getInt("bucket")).thenReturn(1);
+        when(rs.wasNull()).thenReturn(false);
+
+        // When
+        FacetCount count = mapper.mapRow(rs, 0);
+
+        // Then
+        assertThat(count.getFacet()).isEqualTo(FacetCount.Facet.PRICE_RANGE);
+        assertThat(count.getValue().getValue()).isEqualTo("250-500");
+        assertThat(count.getValue().getFrom()).isEqualByComparingTo("250");
+        assertThat(count.getValue().getTo()).isEqualByComparingTo("500");
+        assertThat(count.getValue().getCount()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldLeaveTopPriceRangeOpenEnded() throws Exception {
+        // Given
+        grouping(1, 0, 1, 3);
+        when(rs.getInt("bucket")).thenReturn(3);
+        when(rs.wasNull()).thenReturn(false);
+
+        // When
+        FacetCount count = mapper.mapRow(rs, 0);
+
+        // Then
+        assertThat(count.getValue().getValue()).isEqualTo("5000-");
+        assertThat(count.getValue().getTo()).isNull();
+    }
+
+    @Test
+    void shouldMapSellerRowToStoreWithName() throws Exception {
+        // Given
+        UUID storeId = UUID.randomUUID();
+        grouping(1, 1, 0, 7);
+        when(rs.getObject("seller_id", UUID.class)).thenReturn(storeId);
+        when(rs.getString("store_name")).thenReturn("Tekno Market");
+
+        // When
+        FacetCount count = mapper.mapRow(rs, 0);
+
+        // Then
+        assertThat(count.getFacet()).isEqualTo(FacetCount.Facet.STORE);
+        assertThat(count.getValue().getValue()).isEqualTo(storeId.toString());
+        assertThat(count.getValue().getLabel()).isEqualTo("Tekno Market");
+    }
+
+    @Test
+    void shouldMapGrandTotalRowToTotal() throws Exception {
+        // Given
+        grouping(1, 1, 1, 7);
+
+        // When
+        FacetCount count = mapper.mapRow(rs, 0);
+
+        // Then
+        assertThat(count.getFacet()).isEqualTo(FacetCount.Facet.TOTAL);
+        assertThat(count.getValue().getCount()).isEqualTo(7);
+    }
+
+    @Test
+    void shouldSkipCategoryRowWithoutCategory() throws Exception {
+        // Given
+        grouping(0, 1, 1, 2);
+        when(rs.getString("category")).thenReturn(null);
+
+        // When
+        FacetCount count = mapper.mapRow(rs, 0);
+
+        // Then
+        assertThat(count).isNull();
+    }
+
+    private void grouping(int gCategory, int gBucket, int gSeller, long hits) throws Exception {
+        when(rs.getLong("hits")).thenReturn(hits);
+        when(rs.getInt("g_category")).thenReturn(gCategory);
+        if (gCategory != 0) {
+            when(rs.getInt("g_bucket")).thenReturn(gBucket);
+            if (gBucket != 0) {
+                when(rs.getInt("g_seller")).thenReturn(gSeller);
+            }
+        }
+    }
+}
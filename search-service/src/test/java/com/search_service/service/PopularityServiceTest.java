@@ -0,0 +1,72 @@
+package com.search_service.service;
+
+import com.search_service.config.SearchProperties;
+import com.search_service.event.OrderCreatedEvent;
+import com.search_service.repository.PopularityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PopularityServiceTest {
+
+    @Mock
+    private PopularityRepository popularityRepository;
+
+    @Captor
+    private ArgumentCaptor<List<OrderCreatedEvent>> ordersCaptor;
+
+    private PopularityService popularityService;
+
+    @BeforeEach
+    void setUp() {
+        popularityService = new PopularityService(popularityRepository, new SearchProperties());
+    }
+
+    @Test
+    void shouldDropOrderLinesWithoutProductOrQuantity() {
+        // Given
+        UUID productId = UUID.randomUUID();
+        OrderCreatedEvent order = new OrderCreatedEvent(UUID.randomUUID(), List.of(
+                new OrderCreatedEvent.Item(productId, 2),
+                new OrderCreatedEvent.Item(null, 1),
+                new OrderCreatedEvent.Item(UUID.randomUUID(), 0)));
+
+        // When
+        popularityService.recordOrders(List.of(order, new OrderCreatedEvent(null, List.of())));
+
+        // Then
+        verify(popularityRepository).saveOrderItems(ordersCaptor.capture());
+        assertThat(ordersCaptor.getValue()).hasSize(1);
+        assertThat(ordersCaptor.getValue().get(0).getItems())
+                .extracting(OrderCreatedEvent.Item::getProductId)
+                .containsExactly(productId);
+    }
+
+    @Test
+    void shouldSkipRefreshWhenAnotherInstanceHoldsTheLock() {
+        // Given
+        when(popularityRepository.tryLockRefresh()).thenReturn(false);
+
+        // When
+        popularityService.refresh();
+
+        // Then
+        verify(popularityRepository, never()).applyOrderedSignals(anyLong());
+        verify(popularityRepository, never()).refreshPopularProducts(anyInt());
+    }
+}
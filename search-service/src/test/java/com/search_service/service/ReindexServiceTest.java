@@ -0,0 +1,24 @@
+package com.search_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReindexServiceTest {
+
+    @Test
+    void shouldSplitUuidSpaceIntoOrderedEqualRanges() {
+        // When
+        List<UUID> bounds = ReindexService.partitionBounds(4);
+
+        // Then
+        assertThat(bounds).containsExactly(
+                UUID.fromString("00000000-0000-0000-0000-000000000000"),
+                UUID.fromString("40000000-0000-0000-0000-000000000000"),
+                UUID.fromString("80000000-0000-0000-0000-000000000000"),
+                UUID.fromString("c0000000-0000-0000-0000-000000000000"));
+    }
+}
@@ -0,0 +1,31 @@
+package com.search_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchCursorTest {
+
+    @Test
+    void shouldRoundTripRankAndIdExactly() {
+        // Given
+        UUID id = UUID.randomUUID();
+        float rank = 0.1f / 3;
+
+        // When
+        SearchCursor decoded = SearchCursor.decode(new SearchCursor(rank, id).encode());
+
+        // Then
+        assertThat(decoded.getRank()).isEqualTo(rank);
+        assertThat(decoded.getId()).isEqualTo(id);
+    }
+
+    @Test
+    void shouldRejectTamperedCursor() {
+        assertThatThrownBy(() -> SearchCursor.decode("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
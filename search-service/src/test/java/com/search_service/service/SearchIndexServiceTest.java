@@ -0,0 +1,83 @@
+package com.search_service.service;
+
+import com.search_service.event.ProductEvent;
+import com.search_service.model.ProductDocument;
+import com.search_service.repository.SearchIndexRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class SearchIndexServiceTest {
+
+    @Mock
+    private SearchIndexRepository searchIndexRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private SearchIndexService searchIndexService;
+
+    @Captor
+    private ArgumentCaptor<List<ProductDocument>> upsertCaptor;
+
+    @Captor
+    private ArgumentCaptor<Collection<UUID>> deleteCaptor;
+
+    @Test
+    void shouldCollapseEventsToLatestStatePerProduct() {
+        // Given
+        UUID productId = UUID.randomUUID();
+        List<ProductEvent> events = List.of(
+                productEvent(ProductEvent.EventType.PRODUCT_CREATED, productId, "Old name", 5),
+                productEvent(ProductEvent.EventType.PRODUCT_UPDATED, productId, "New name", 3));
+
+        // When
+        searchIndexService.applyProductEvents(events);
+
+        // Then
+        verify(searchIndexRepository).upsertProducts(upsertCaptor.capture());
+        verify(searchIndexRepository).deleteProducts(deleteCaptor.capture());
+        assertThat(upsertCaptor.getValue()).hasSize(1);
+        assertThat(upsertCaptor.getValue().get(0).getName()).isEqualTo("New name");
+        assertThat(upsertCaptor.getValue().get(0).getStock()).isEqualTo(3);
+        assertThat(deleteCaptor.getValue()).isEmpty();
+    }
+
+    @Test
+    void shouldDeleteWhenLastEventIsDeletion() {
+        // Given
+        UUID productId = UUID.randomUUID();
+        List<ProductEvent> events = List.of(
+                productEvent(ProductEvent.EventType.PRODUCT_UPDATED, productId, "Name", 1),
+                productEvent(ProductEvent.EventType.PRODUCT_DELETED, productId, "Name", 1));
+
+        // When
+        searchIndexService.applyProductEvents(events);
+
+        // Then
+        verify(searchIndexRepository).upsertProducts(upsertCaptor.capture());
+        verify(searchIndexRepository).deleteProducts(deleteCaptor.capture());
+        assertThat(upsertCaptor.getValue()).isEmpty();
+        assertThat(deleteCaptor.getValue()).containsExactly(productId);
+    }
+
+    private ProductEvent productEvent(ProductEvent.EventType type, UUID productId, String name, int quantity) {
+        return new ProductEvent(type, productId, name, "Elektronik", BigDecimal.TEN, quantity,
+                "description", UUID.randomUUID(), true);
+    }
+}
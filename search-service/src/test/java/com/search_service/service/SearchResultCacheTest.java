@@ -0,0 +1,66 @@
+package com.search_service.service;
+
+import com.search_service.config.SearchProperties;
+import com.search_service.event.SearchIndexChangedEvent;
+import com.search_service.model.ProductDocument;
+import com.search_service.model.ProductHit;
+import com.search_service.model.SearchPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTest {
+
+    private final SearchResultCache cache = new SearchResultCache(new SearchProperties(), new SimpleMeterRegistry());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void shouldServeRepeatedQueriesFromCache() {
+        // Given
+        UUID productId = UUID.randomUUID();
+
+        // When
+        cache.get("iPhone", "product", 0, null, 20, loader(productId));
+        cache.get("iphone ", "product", 0, null, 20, loader(productId));
+
+        // Then
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void shouldInvalidateOnlyEntriesAffectedByChangedDocuments() {
+        // Given
+        UUID listed = UUID.randomUUID();
+        cache.get("iphone", "product", 0, null, 20, loader(listed));
+        cache.get("ayakkabi", "product", 0, null, 20, loader(UUID.randomUUID()));
+        cache.get("kilif", "product", 0, null, 20, loader(UUID.randomUUID()));
+
+        // When: one listed product changes and a new "Spor Ayakkabı" appears
+        cache.onIndexChanged(SearchIndexChangedEvent.products(List.of(
+                document(listed, "Apple iPhone 15"),
+                document(UUID.randomUUID(), "Spor Ayakkabı")), List.of()));
+        cache.get("iphone", "product", 0, null, 20, loader(listed));
+        cache.get("ayakkabi", "product", 0, null, 20, loader(UUID.randomUUID()));
+        cache.get("kilif", "product", 0, null, 20, loader(UUID.randomUUID()));
+
+        // Then
+        assertThat(loads).hasValue(5);
+    }
+
+    private Supplier<SearchPage> loader(UUID productId) {
+        return () -> {
+            loads.incrementAndGet();
+            return new SearchPage(List.of(ProductHit.builder().productId(productId).build()), null);
+        };
+    }
+
+    private static ProductDocument document(UUID productId, String name) {
+        return ProductDocument.builder().productId(productId).name(name).active(true).build();
+    }
+}
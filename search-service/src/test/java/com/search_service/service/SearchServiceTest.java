@@ -0,0 +1,139 @@
+package com.search_service.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.search_service.config.SearchProperties;
+import com.search_service.model.FacetCount;
+import com.search_service.model.FacetValue;
+import com.search_service.model.FacetedSearchResult;
+import com.search_service.model.ProductFilter;
+import com.search_service.model.ProductHit;
+import com.search_service.model.SearchPage;
+import com.search_service.repository.SearchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+    @Mock
+    private SearchRepository searchRepository;
+
+    @Mock
+    private SuggestionIndex suggestionIndex;
+
+    private SearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        SearchProperties properties = new SearchProperties();
+        searchService = new SearchService(searchRepository, properties, suggestionIndex,
+                new SearchResultCache(properties, new SimpleMeterRegistry()), new ObjectMapper());
+    }
+
+    @Test
+    void shouldAppendFuzzyHitsWhenFullTextComesBackShort() {
+        // Given
+        UUID exactId = UUID.randomUUID();
+        ProductHit exact = hit(exactId, 0.5f);
+        ProductHit fuzzy = hit(UUID.randomUUID(), 0.6f);
+        when(searchRepository.searchProducts("kilif", 20, 0)).thenReturn(List.of(exact));
+        when(searchRepository.fuzzySearchProducts("kilif", 20, 0.45))
+                .thenReturn(List.of(hit(exactId, 0.9f), fuzzy));
+
+        // When
+        SearchPage page = searchService.search("kilif", "product", 0, null);
+
+        // Then
+        assertThat(page.getItems()).containsExactly(exact, fuzzy);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldNotRunFuzzyStageBeyondTheFirstPage() {
+        // Given
+        when(searchRepository.searchProducts("kilif", 20, 20)).thenReturn(List.of());
+
+        // When
+        SearchPage page = searchService.search("kilif", "product", 1, null);
+
+        // Then
+        assertThat(page.getItems()).isEmpty();
+        verify(searchRepository, never()).fuzzySearchProducts(anyString(), anyInt(), anyDouble());
+    }
+
+    @Test
+    void shouldSplitFacetCountsIntoFacets() {
+        // Given
+        UUID storeId = UUID.randomUUID();
+        ProductFilter filter = new ProductFilter();
+        when(searchRepository.productFacetCounts(eq("telefon"), eq(filter), anyList())).thenReturn(List.of(
+                facetCount(FacetCount.Facet.CATEGORY, "Elektronik", null, 7),
+                facetCount(FacetCount.Facet.PRICE_RANGE, "5000-", new BigDecimal("5000"), 3),
+                facetCount(FacetCount.Facet.PRICE_RANGE, "250-500", new BigDecimal("250"), 4),
+                facetCount(FacetCount.Facet.STORE, storeId.toString(), null, 7),
+                facetCount(FacetCount.Facet.TOTAL, null, null, 7)));
+        when(searchRepository.searchProductsFiltered("telefon", filter, 20, 0)).thenReturn(List.of());
+
+        // When
+        FacetedSearchResult result = searchService.facetedSearch("telefon", filter, 0);
+
+        // Then
+        assertThat(result.getTotal()).isEqualTo(7);
+        assertThat(result.getFacets().getCategories()).extracting(FacetValue::getValue).containsExactly("Elektronik");
+        assertThat(result.getFacets().getPriceRanges()).extracting(FacetValue::getValue)
+                .containsExactly("250-500", "5000-");
+        assertThat(result.getFacets().getStores()).extracting(FacetValue::getValue).containsExactly(storeId.toString());
+    }
+
+    @Test
+    void shouldStreamHitsAsJsonArrayWithColumnNames() throws Exception {
+        // Given
+        UUID productId = UUID.randomUUID();
+        doAnswer(invocation -> {
+            Consumer<ProductHit> consumer = invocation.getArgument(2);
+            consumer.accept(hit(productId, 0.5f));
+            return null;
+        }).when(searchRepository).streamProducts(eq("telefon"), eq(1000), any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        searchService.streamSearch("telefon", "product", 1000, out);
+
+        // Then
+        JsonNode json = new ObjectMapper().readTree(out.toByteArray());
+        assertThat(json.isArray()).isTrue();
+        assertThat(json.get(0).get("product_id").asText()).isEqualTo(productId.toString());
+        assertThat(json.get(0).has("is_active")).isTrue();
+    }
+
+    private static ProductHit hit(UUID productId, float rank) {
+        return ProductHit.builder().productId(productId).name("Telefon").active(true).rank(rank).build();
+    }
+
+    private static FacetCount facetCount(FacetCount.Facet facet, String value, BigDecimal from, long count) {
+        return new FacetCount(facet, FacetValue.builder().value(value).from(from).count(count).build());
+    }
+}
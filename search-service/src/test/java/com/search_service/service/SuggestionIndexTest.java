@@ -0,0 +1,43 @@
+package com.search_service.service;
+
+import com.search_service.config.SearchProperties;
+import com.search_service.model.Suggestion;
+import com.search_service.repository.SearchRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SuggestionIndexTest {
+
+    private final SuggestionIndex index = new SuggestionIndex(mock(SearchRepository.class), new SearchProperties());
+
+    @Test
+    void shouldMatchAnyWordStartAndRankByPopularity() {
+        // Given
+        Suggestion phone = new Suggestion(UUID.randomUUID(), Suggestion.Type.PRODUCT, "Apple iPhone 15", 50);
+        Suggestion case_ = new Suggestion(UUID.randomUUID(), Suggestion.Type.PRODUCT, "iPhone Kılıf", 120);
+        index.put(phone);
+        index.put(case_);
+
+        // When / Then
+        assertThat(index.suggest("IPH", 10)).containsExactly(case_, phone);
+        assertThat(index.suggest("apple iph", 10)).containsExactly(phone);
+        assertThat(index.suggest("kilif", 10)).containsExactly(case_);
+    }
+
+    @Test
+    void shouldDropRemovedEntries() {
+        // Given
+        Suggestion store = new Suggestion(UUID.randomUUID(), Suggestion.Type.STORE, "Teknoloji Dünyası", 0);
+        index.put(store);
+
+        // When
+        index.remove(store.getId());
+
+        // Then
+        assertThat(index.suggest("tek", 10)).isEmpty();
+    }
+}